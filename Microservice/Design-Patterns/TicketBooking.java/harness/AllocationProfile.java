@@ -0,0 +1,58 @@
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+
+/*
+ * Bytes allocated per createBooking and per processPayment (the BigDecimal and
+ * the long minor-units overloads, each on half of the bookings) on the calling
+ * thread, measured with the JVM's per-thread allocation counter. A rough but
+ * dependency-free stand-in for JMH's -prof gc.
+ *
+ * Usage: java AllocationProfile [operations]
+ */
+public class AllocationProfile {
+
+    private static final int EVENT_ID = 1;
+
+    public static void main(String[] args) {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        for (int round = 1; round <= 5; round++) {
+            BookingManager manager = new BookingManager();
+            manager.addUser(new User(1, "user", "user@example.com"));
+            manager.addEvent(new Event(EVENT_ID, "Concert", "2025-01-01", "Arena"));
+            for (int s = 0; s < operations; s++) {
+                manager.addSeatToEvent(EVENT_ID, new Seat(s, EVENT_ID, "A" + s, BigDecimal.TEN));
+            }
+            int[] bookingIds = new int[operations];
+
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int s = 0; s < operations; s++) {
+                bookingIds[s] = manager.createBooking(1, EVENT_ID, s).getBookingId();
+            }
+            long booking = threads.getThreadAllocatedBytes(threadId) - before;
+
+            int half = operations / 2;
+            BigDecimal amount = BigDecimal.TEN;
+            before = threads.getThreadAllocatedBytes(threadId);
+            for (int s = 0; s < half; s++) {
+                manager.processPayment(bookingIds[s], amount);
+            }
+            long payment = threads.getThreadAllocatedBytes(threadId) - before;
+
+            long amountMinor = Money.toMinor(amount);
+            before = threads.getThreadAllocatedBytes(threadId);
+            for (int s = half; s < operations; s++) {
+                manager.processPayment(bookingIds[s], amountMinor);
+            }
+            long paymentMinor = threads.getThreadAllocatedBytes(threadId) - before;
+
+            System.out.printf("round %d: createBooking %d B/op | processPayment(BigDecimal) %d B/op"
+                    + " | processPayment(long) %d B/op%n",
+                    round, booking / operations, payment / half, paymentMinor / (operations - half));
+            manager.shutdown();
+        }
+    }
+}
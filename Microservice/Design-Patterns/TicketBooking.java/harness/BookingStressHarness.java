@@ -0,0 +1,158 @@
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/*
+ * Stress harness for the booking engine.
+ *
+ * Thousands of threads hammer one hot event, each trying random seats until the
+ * event is sold out. Afterwards every seat must be sold exactly once. The same
+ * workload is replayed against a synchronized baseline (the old HashMap
+ * check-then-act wrapped in one big lock) so the throughput can be compared.
+ *
+ * Usage: java BookingStressHarness [threads] [seats] [rounds]
+ */
+public class BookingStressHarness {
+
+    private static final int EVENT_ID = 1;
+    private static final int FIRST_SEAT_ID = 10_000;
+
+    interface Engine {
+        Booking book(int userId, int eventId, int seatId);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int seats = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.println("threads=" + threads + " seats=" + seats + " rounds=" + rounds);
+        for (int round = 1; round <= rounds; round++) {
+            Result cas = run("cas", casEngine(threads, seats), threads, seats);
+            Result sync = run("synchronized", synchronizedEngine(threads, seats), threads, seats);
+            System.out.println("round " + round + ": " + cas + " | " + sync);
+        }
+    }
+
+    private static Engine casEngine(int users, int seats) {
+        BookingManager manager = new BookingManager();
+        for (int u = 0; u < users; u++) {
+            manager.addUser(new User(u, "user" + u, "user" + u + "@example.com"));
+        }
+        manager.addEvent(new Event(EVENT_ID, "Hot Onsale", "2025-01-01", "Stadium"));
+        for (int s = 0; s < seats; s++) {
+            manager.addSeatToEvent(EVENT_ID, new Seat(FIRST_SEAT_ID + s, EVENT_ID, "S" + s, BigDecimal.TEN));
+        }
+        return manager::createBooking;
+    }
+
+    private static Engine synchronizedEngine(int users, int seats) {
+        SynchronizedBaseline baseline = new SynchronizedBaseline();
+        for (int u = 0; u < users; u++) {
+            baseline.users.put(u, new User(u, "user" + u, "user" + u + "@example.com"));
+        }
+        baseline.events.put(EVENT_ID, new Event(EVENT_ID, "Hot Onsale", "2025-01-01", "Stadium"));
+        for (int s = 0; s < seats; s++) {
+            baseline.seats.add(new Seat(FIRST_SEAT_ID + s, EVENT_ID, "S" + s, BigDecimal.TEN));
+        }
+        baseline.booked = new boolean[seats];
+        return baseline::createBooking;
+    }
+
+    private static Result run(String name, Engine engine, int threads, int seats) throws InterruptedException {
+        AtomicIntegerArray soldCount = new AtomicIntegerArray(seats);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            int userId = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int localAttempts = 0;
+                    while (sold.get() < seats) {
+                        int seat = random.nextInt(seats);
+                        localAttempts++;
+                        Booking booking = engine.book(userId, EVENT_ID, FIRST_SEAT_ID + seat);
+                        if (booking != null) {
+                            soldCount.incrementAndGet(seat);
+                            sold.incrementAndGet();
+                        }
+                    }
+                    attempts.addAndGet(localAttempts);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.start();
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        int doubleBooked = 0;
+        int unsold = 0;
+        for (int s = 0; s < seats; s++) {
+            int count = soldCount.get(s);
+            if (count > 1) doubleBooked++;
+            if (count == 0) unsold++;
+        }
+        if (doubleBooked != 0 || unsold != 0 || sold.get() != seats) {
+            throw new IllegalStateException(name + ": doubleBooked=" + doubleBooked
+                    + " unsold=" + unsold + " sold=" + sold.get());
+        }
+        return new Result(name, attempts.get(), elapsedNanos);
+    }
+
+    private record Result(String name, int attempts, long elapsedNanos) {
+        @Override
+        public String toString() {
+            double opsPerSec = attempts / (elapsedNanos / 1_000_000_000.0);
+            return String.format("%s %,d attempts in %d ms (%,.0f ops/s, 0 double-bookings)",
+                    name, attempts, elapsedNanos / 1_000_000, opsPerSec);
+        }
+    }
+
+    /*
+     * The original BookingManager logic, made safe the naive way: one monitor
+     * around the whole check-then-act.
+     */
+    private static final class SynchronizedBaseline {
+        private final Map<Integer, User> users = new HashMap<>();
+        private final Map<Integer, Event> events = new HashMap<>();
+        private final Map<Integer, Booking> bookings = new HashMap<>();
+        private final List<Seat> seats = new ArrayList<>();
+        private boolean[] booked;
+        private int bookingIdGenerator = 100;
+
+        synchronized Booking createBooking(int userId, int eventId, int seatId) {
+            if (users.get(userId) == null || events.get(eventId) == null) {
+                throw new IllegalArgumentException("Invalid user/event");
+            }
+            for (int i = 0; i < seats.size(); i++) {
+                Seat currentSeat = seats.get(i);
+                if (currentSeat.getSeatId() == seatId && !booked[i]) {
+                    booked[i] = true;
+                    Booking booking = new Booking(++bookingIdGenerator, userId, eventId, seatId,
+                            currentSeat.getSeatNumber(), System.currentTimeMillis(), BookingStatus.BOOKED);
+                    bookings.put(booking.getBookingId(), booking);
+                    return booking;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Compares booking a group of N seats with N createBooking calls against one
+ * createBookings call, then checks the batched call under contention: groups
+ * that overlap must either get every seat or none, and no claim may leak.
+ *
+ * Usage: java GroupBookingBenchmark [groupSize] [groups] [threads]
+ */
+public class GroupBookingBenchmark {
+
+    private static final int EVENT_ID = 1;
+    private static final int USER_ID = 1;
+
+    public static void main(String[] args) throws InterruptedException {
+        int groupSize = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int groups = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        System.out.println("groupSize=" + groupSize + " groups=" + groups + " threads=" + threads);
+        for (int round = 1; round <= 5; round++) {
+            long single = timeSingleCalls(groupSize, groups);
+            long batched = timeBatchedCalls(groupSize, groups);
+            System.out.printf("round %d: %d single calls %,d ns/group | 1 batched call %,d ns/group%n",
+                    round, groupSize, single / groups, batched / groups);
+        }
+        contended(groupSize, threads);
+    }
+
+    private static BookingManager newManager(int seats, int users) {
+        BookingManager manager = new BookingManager();
+        for (int u = 0; u <= users; u++) {
+            manager.addUser(new User(u, "user" + u, "user" + u + "@example.com"));
+        }
+        manager.addEvent(new Event(EVENT_ID, "Group Sale", "2025-01-01", "Arena"));
+        for (int s = 0; s < seats; s++) {
+            manager.addSeatToEvent(EVENT_ID, new Seat(s, EVENT_ID, "S" + s, BigDecimal.TEN));
+        }
+        return manager;
+    }
+
+    private static long timeSingleCalls(int groupSize, int groups) {
+        BookingManager manager = newManager(groupSize * groups, 1);
+        long start = System.nanoTime();
+        for (int g = 0; g < groups; g++) {
+            int first = g * groupSize;
+            for (int s = 0; s < groupSize; s++) {
+                if (manager.createBooking(USER_ID, EVENT_ID, first + s) == null) {
+                    throw new IllegalStateException("seat " + (first + s) + " not booked");
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long timeBatchedCalls(int groupSize, int groups) {
+        BookingManager manager = newManager(groupSize * groups, 1);
+        List<List<Integer>> requests = new ArrayList<>(groups);
+        for (int g = 0; g < groups; g++) {
+            List<Integer> seatIds = new ArrayList<>(groupSize);
+            for (int s = 0; s < groupSize; s++) {
+                seatIds.add(g * groupSize + s);
+            }
+            requests.add(seatIds);
+        }
+        long start = System.nanoTime();
+        for (List<Integer> seatIds : requests) {
+            if (manager.createBookings(USER_ID, EVENT_ID, seatIds).size() != groupSize) {
+                throw new IllegalStateException("group " + seatIds + " not booked");
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void contended(int groupSize, int threads) throws InterruptedException {
+        int seats = 10_000;
+        BookingManager manager = newManager(seats, threads);
+        AtomicInteger seatsFromGroups = new AtomicInteger();
+        AtomicInteger failedGroups = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            int userId = t;
+            new Thread(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 2_000; i++) {
+                        // adjacent seats around a random point, so groups overlap a lot
+                        int first = random.nextInt(seats - groupSize);
+                        List<Integer> seatIds = new ArrayList<>(groupSize);
+                        for (int s = 0; s < groupSize; s++) {
+                            seatIds.add(first + s);
+                        }
+                        int booked = manager.createBookings(userId, EVENT_ID, seatIds).size();
+                        if (booked == 0) {
+                            failedGroups.incrementAndGet();
+                        } else if (booked != groupSize) {
+                            throw new IllegalStateException("half-booked group " + seatIds);
+                        } else {
+                            seatsFromGroups.addAndGet(booked);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+
+        int bookedSeats = 0;
+        for (Seat seat : manager.getSeatsForEvent(EVENT_ID)) {
+            if (seat.isBooked()) bookedSeats++;
+        }
+        if (bookedSeats != seatsFromGroups.get() || manager.getBookingCount() != bookedSeats) {
+            throw new IllegalStateException("booked seats=" + bookedSeats + " but groups reported "
+                    + seatsFromGroups.get() + " and bookings=" + manager.getBookingCount());
+        }
+        System.out.printf("contended: %,d seats booked in whole groups, %,d groups rejected, 0 half-booked%n",
+                bookedSeats, failedGroups.get());
+    }
+}
@@ -0,0 +1,92 @@
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Tail latency of createBooking on one hot event, CAS mode versus shard mode.
+ * Every thread books random seats until the event sells out; each call's
+ * latency is recorded and the percentiles are printed per mode.
+ *
+ * Usage: java HotEventLatencyHarness [threads] [seats] [rounds]
+ */
+public class HotEventLatencyHarness {
+
+    private static final int EVENT_ID = 1;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int seats = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.println("threads=" + threads + " seats=" + seats);
+        for (int round = 1; round <= rounds; round++) {
+            System.out.println("round " + round + ": " + run(false, threads, seats));
+            System.out.println("round " + round + ": " + run(true, threads, seats));
+        }
+    }
+
+    private static String run(boolean sharded, int threads, int seats) throws InterruptedException {
+        BookingManager manager = new BookingManager();
+        for (int u = 0; u < threads; u++) {
+            manager.addUser(new User(u, "user" + u, "user" + u + "@example.com"));
+        }
+        manager.addEvent(new Event(EVENT_ID, "Hot Onsale", "2025-01-01", "Stadium"));
+        for (int s = 0; s < seats; s++) {
+            manager.addSeatToEvent(EVENT_ID, new Seat(s, EVENT_ID, "S" + s, BigDecimal.TEN));
+        }
+        manager.setShardMode(EVENT_ID, sharded);
+
+        AtomicInteger sold = new AtomicInteger();
+        long[][] latencies = new long[threads][];
+        int[] calls = new int[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int userId = t;
+            latencies[t] = new long[seats * 4];
+            new Thread(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long[] mine = latencies[userId];
+                    int n = 0;
+                    while (sold.get() < seats && n < mine.length) {
+                        long begin = System.nanoTime();
+                        Booking booking = manager.createBooking(userId, EVENT_ID, random.nextInt(seats));
+                        mine[n++] = System.nanoTime() - begin;
+                        if (booking != null) {
+                            sold.incrementAndGet();
+                        }
+                    }
+                    calls[userId] = n;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+        manager.shutdown();
+
+        int total = 0;
+        for (int c : calls) total += c;
+        long[] all = new long[total];
+        int offset = 0;
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(latencies[t], 0, all, offset, calls[t]);
+            offset += calls[t];
+        }
+        Arrays.sort(all);
+        return String.format("%-6s calls=%,d p50=%,dns p99=%,dns p99.9=%,dns max=%,dns",
+                sharded ? "shard" : "cas", total, percentile(all, 0.50), percentile(all, 0.99),
+                percentile(all, 0.999), all[all.length - 1]);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+}
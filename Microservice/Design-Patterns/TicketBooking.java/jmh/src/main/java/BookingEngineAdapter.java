@@ -0,0 +1,82 @@
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ticketbooking.jmh.BookingEngine;
+
+/*
+ * Bridges the default-package engine to the benchmarks in ticketbooking.jmh.
+ * Seats are numbered A0..A(n-1), the same layout the harness programs use.
+ */
+public class BookingEngineAdapter implements BookingEngine {
+
+    private static final int EVENT_ID = 1;
+
+    private BookingManager manager;
+    private Map<Integer, Booking> allBookings = Map.of();
+
+    @Override
+    public void init(int users, int seats) {
+        shutdown();
+        allBookings = Map.of();
+        manager = new BookingManager();
+        for (int u = 0; u < users; u++) {
+            manager.addUser(new User(u, "user" + u, "user" + u + "@example.com"));
+        }
+        manager.addEvent(new Event(EVENT_ID, "Concert", "2025-01-01", "Arena"));
+        for (int s = 0; s < seats; s++) {
+            manager.addSeatToEvent(EVENT_ID, new Seat(s, EVENT_ID, "A" + s, BigDecimal.TEN));
+        }
+    }
+
+    @Override
+    public int createBooking(int userId, int seatId) {
+        Booking booking = manager.createBooking(userId, EVENT_ID, seatId);
+        return booking == null ? -1 : booking.getBookingId();
+    }
+
+    @Override
+    public int processPayment(int bookingId, long amountMinor) {
+        return manager.processPayment(bookingId, amountMinor).getPaymentId();
+    }
+
+    @Override
+    public List<?> getBookingsForUser(int userId) {
+        return manager.getBookingsForUser(userId);
+    }
+
+    @Override
+    public void copyBookingsForScan() {
+        Map<Integer, Booking> copy = new ConcurrentHashMap<>();
+        for (Booking booking : manager.getBookingsForEvent(EVENT_ID)) {
+            copy.put(booking.getBookingId(), booking);
+        }
+        allBookings = copy;
+    }
+
+    @Override
+    public List<?> scanBookingsForUser(int userId) {
+        List<Booking> res = new ArrayList<>();
+        for (Booking booking : allBookings.values()) {
+            if (booking.getUserId() == userId) {
+                res.add(booking);
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public List<?> getSeatsForEvent() {
+        return manager.getSeatsForEvent(EVENT_ID);
+    }
+
+    @Override
+    public void shutdown() {
+        if (manager != null) {
+            manager.shutdown();
+            manager = null;
+        }
+    }
+}
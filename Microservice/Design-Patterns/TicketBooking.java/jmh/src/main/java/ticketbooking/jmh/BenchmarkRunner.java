@@ -0,0 +1,48 @@
+package ticketbooking.jmh;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * Runs the benchmarks once per thread count and writes one JSON result file
+ * per run, e.g. results/threads-4.json, for diffing against a previous run.
+ *
+ * Usage: java -jar target/benchmarks.jar [threads,...] [resultDir] [JMH options]
+ *   java -jar target/benchmarks.jar 1,4,16 results -p seats=100000 BookingWrite
+ *
+ * JMH itself stays available: java -cp target/benchmarks.jar org.openjdk.jmh.Main -h
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, java.io.IOException {
+        String threads = args.length > 0 ? args[0] : "1,4,16";
+        Path resultDir = Path.of(args.length > 1 ? args[1] : "results");
+        String[] jmhArgs = new String[Math.max(0, args.length - 2)];
+        System.arraycopy(args, Math.min(2, args.length), jmhArgs, 0, jmhArgs.length);
+        CommandLineOptions cli = new CommandLineOptions(jmhArgs);
+
+        Files.createDirectories(resultDir);
+        for (String count : threads.split(",")) {
+            int threadCount = Integer.parseInt(count.trim());
+            OptionsBuilder builder = new OptionsBuilder();
+            builder.parent(cli);
+            if (cli.getIncludes().isEmpty()) {
+                builder.include(BenchmarkRunner.class.getPackageName() + ".Booking.*");
+            }
+            Options options = builder
+                    .threads(threadCount)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultDir.resolve("threads-" + threadCount + ".json").toString())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
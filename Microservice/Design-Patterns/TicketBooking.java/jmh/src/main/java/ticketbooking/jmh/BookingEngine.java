@@ -0,0 +1,45 @@
+package ticketbooking.jmh;
+
+import java.util.List;
+
+/*
+ * What the benchmarks need from the booking engine.
+ *
+ * The engine is written in the default package, which JMH does not accept for
+ * benchmark classes and which a named package cannot import. The default-package
+ * BookingEngineAdapter implements this interface on top of BookingManager and is
+ * loaded reflectively, once per setup, so nothing reflective is on the measured path.
+ */
+public interface BookingEngine {
+
+    String ADAPTER_CLASS = "BookingEngineAdapter";
+
+    // Fresh engine with one event of the given size; discards any previous state.
+    void init(int users, int seats);
+
+    // Booking id, or -1 if the seat was not free.
+    int createBooking(int userId, int seatId);
+
+    // Payment id.
+    int processPayment(int bookingId, long amountMinor);
+
+    List<?> getBookingsForUser(int userId);
+
+    // Copies every booking into one plain map, the way they were kept before the userId index.
+    void copyBookingsForScan();
+
+    // What getBookingsForUser did before the index: a scan of that copy.
+    List<?> scanBookingsForUser(int userId);
+
+    List<?> getSeatsForEvent();
+
+    void shutdown();
+
+    static BookingEngine load() {
+        try {
+            return (BookingEngine) Class.forName(ADAPTER_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load " + ADAPTER_CLASS, e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ticketbooking.jmh;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * getBookingsForUser at 1M bookings: the userId index maintained on the write
+ * path versus the full scan over every booking it replaced. Every seat is
+ * booked, round-robin over USERS users, so each history holds bookings/USERS
+ * entries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class BookingHistoryBenchmark {
+
+    static final int USERS = 100_000;
+
+    @State(Scope.Benchmark)
+    public static class Engine {
+        @Param({"1000000"})
+        int bookings;
+
+        BookingEngine engine;
+
+        @Setup(Level.Trial)
+        public void populate() {
+            engine = BookingEngine.load();
+            engine.init(USERS, bookings);
+            for (int seat = 0; seat < bookings; seat++) {
+                engine.createBooking(seat % USERS, seat);
+            }
+            engine.copyBookingsForScan();
+            // both sides must find the same history, or the comparison means nothing
+            int indexed = engine.getBookingsForUser(0).size();
+            int scanned = engine.scanBookingsForUser(0).size();
+            if (indexed != scanned) {
+                throw new IllegalStateException("user 0: index found " + indexed + ", scan found " + scanned);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void shutdown() {
+            engine.shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<?> indexed(Engine engine) {
+        return engine.engine.getBookingsForUser(ThreadLocalRandom.current().nextInt(USERS));
+    }
+
+    @Benchmark
+    public List<?> fullScan(Engine engine) {
+        return engine.engine.scanBookingsForUser(ThreadLocalRandom.current().nextInt(USERS));
+    }
+}
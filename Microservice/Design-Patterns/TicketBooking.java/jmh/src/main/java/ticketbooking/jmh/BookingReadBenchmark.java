@@ -0,0 +1,74 @@
+package ticketbooking.jmh;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * getBookingsForUser and getSeatsForEvent against an event with every other
+ * seat booked, bookings spread round-robin over USERS users.
+ *
+ * contention=uniform reads a random user's history; contention=hot has every
+ * thread read user 0. getSeatsForEvent always reads the single event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class BookingReadBenchmark {
+
+    static final int USERS = 10_000;
+
+    @State(Scope.Benchmark)
+    public static class Engine {
+        @Param({"100000", "1000000"})
+        int seats;
+
+        @Param({"uniform", "hot"})
+        String contention;
+
+        BookingEngine engine;
+        boolean hot;
+
+        @Setup(Level.Trial)
+        public void populate() {
+            engine = BookingEngine.load();
+            engine.init(USERS, seats);
+            for (int seat = 0; seat < seats; seat += 2) {
+                engine.createBooking((seat / 2) % USERS, seat);
+            }
+            hot = "hot".equals(contention);
+        }
+
+        @TearDown(Level.Trial)
+        public void shutdown() {
+            engine.shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<?> getBookingsForUser(Engine engine) {
+        int userId = engine.hot ? 0 : ThreadLocalRandom.current().nextInt(USERS);
+        return engine.engine.getBookingsForUser(userId);
+    }
+
+    @Benchmark
+    public List<?> getSeatsForEvent(Engine engine) {
+        return engine.engine.getSeatsForEvent();
+    }
+}
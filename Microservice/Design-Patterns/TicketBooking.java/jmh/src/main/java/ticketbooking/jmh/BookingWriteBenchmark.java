@@ -0,0 +1,112 @@
+package ticketbooking.jmh;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * createBooking and processPayment.
+ *
+ * Both consume seats, so they cannot run in a steady state: every iteration
+ * starts from a fresh engine and each thread makes exactly BATCH calls
+ * (single-shot batches, JMH's recipe for state-changing operations). Scores
+ * are microseconds per batch of BATCH calls per thread.
+ *
+ * contention=uniform spreads calls over every seat (createBooking) or over the
+ * thread's own bookings (processPayment); contention=hot sends every call from
+ * every thread to seat 0, or to one shared booking.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = BookingWriteBenchmark.BATCH)
+@Measurement(iterations = 20, batchSize = BookingWriteBenchmark.BATCH)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class BookingWriteBenchmark {
+
+    static final int BATCH = 2_000;
+    static final int USERS = 10_000;
+    static final long AMOUNT_MINOR = 10_00;
+
+    @State(Scope.Benchmark)
+    public static class Engine {
+        @Param({"100000", "1000000"})
+        int seats;
+
+        @Param({"uniform", "hot"})
+        String contention;
+
+        BookingEngine engine;
+        boolean hot;
+        int hotBookingId;
+        final AtomicInteger nextSeat = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void load() {
+            engine = BookingEngine.load();
+            hot = "hot".equals(contention);
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            engine.init(USERS, seats);
+            // seat 0 is the hot seat for createBooking, so payments book from seat 1 on
+            nextSeat.set(1);
+            hotBookingId = hot ? bookNextSeat(0) : -1;
+        }
+
+        // Books the next never-used seat; the caller must not run out of seats.
+        int bookNextSeat(int userId) {
+            int seat = nextSeat.getAndIncrement();
+            int bookingId = seat < seats ? engine.createBooking(userId, seat) : -1;
+            if (bookingId < 0) {
+                throw new IllegalStateException("Out of seats: raise seats or lower BATCH/threads");
+            }
+            return bookingId;
+        }
+
+        @TearDown(Level.Trial)
+        public void shutdown() {
+            engine.shutdown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Bookings {
+        int[] ids = new int[BATCH];
+        int next;
+
+        @Setup(Level.Iteration)
+        public void book(Engine engine) {
+            next = 0;
+            for (int i = 0; i < BATCH; i++) {
+                ids[i] = engine.hot ? engine.hotBookingId : engine.bookNextSeat(i % USERS);
+            }
+        }
+    }
+
+    @Benchmark
+    public int createBooking(Engine engine) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int seat = engine.hot ? 0 : random.nextInt(engine.seats);
+        return engine.engine.createBooking(random.nextInt(USERS), seat);
+    }
+
+    @Benchmark
+    public int processPayment(Engine engine, Bookings bookings) {
+        return engine.engine.processPayment(bookings.ids[bookings.next++], AMOUNT_MINOR);
+    }
+}
@@ -0,0 +1,161 @@
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/*
+ * Restarts the engine from its journal (and snapshot) and checks that seats
+ * and bookings come back exactly as they were.
+ */
+class BookingRecoveryTest {
+
+    private static final int EVENT_ID = 1;
+    private static final int SEAT_ID = 7;
+    private static final long NO_SNAPSHOTS = 0;
+
+    @TempDir
+    Path dir;
+
+    private BookingManager manager;
+
+    @AfterEach
+    void shutdown() {
+        if (manager != null) {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    void bookingsAndPaidHoldsSurviveRestart() throws IOException {
+        manager = start(60_000);
+        Booking booked = manager.createBooking(1, EVENT_ID, SEAT_ID);
+        Booking paid = manager.holdSeat(1, EVENT_ID, SEAT_ID + 1);
+        manager.processPayment(paid.getBookingId(), 1000L);
+
+        restart(60_000);
+
+        assertStatus(booked.getBookingId(), BookingStatus.BOOKED);
+        assertStatus(paid.getBookingId(), BookingStatus.BOOKED);
+        assertNull(manager.createBooking(2, EVENT_ID, SEAT_ID));
+        assertNull(manager.createBooking(2, EVENT_ID, SEAT_ID + 1));
+        assertNotNull(manager.createBooking(2, EVENT_ID, SEAT_ID + 2));
+    }
+
+    @Test
+    void seatRebookedAfterAnExpiredHoldStaysBookedAfterRestart() throws Exception {
+        manager = start(50);
+        Booking hold = manager.holdSeat(1, EVENT_ID, SEAT_ID);
+        awaitStatus(hold.getBookingId(), BookingStatus.EXPIRED);
+        Booking rebooked = manager.createBooking(2, EVENT_ID, SEAT_ID);
+        assertNotNull(rebooked);
+
+        restart(50);
+
+        assertStatus(hold.getBookingId(), BookingStatus.EXPIRED);
+        assertStatus(rebooked.getBookingId(), BookingStatus.BOOKED);
+        assertNull(manager.createBooking(3, EVENT_ID, SEAT_ID));
+    }
+
+    @Test
+    void holdThatExpiresAfterTheSnapshotDoesNotFreeTheRebookedSeat() throws Exception {
+        manager = start(300);
+        Booking hold = manager.holdSeat(1, EVENT_ID, SEAT_ID);
+        manager.snapshot(); // records the hold as HELD
+        awaitStatus(hold.getBookingId(), BookingStatus.EXPIRED);
+        Booking rebooked = manager.createBooking(2, EVENT_ID, SEAT_ID);
+
+        restart(300);
+
+        assertStatus(hold.getBookingId(), BookingStatus.EXPIRED);
+        assertStatus(rebooked.getBookingId(), BookingStatus.BOOKED);
+        assertNull(manager.createBooking(3, EVENT_ID, SEAT_ID));
+    }
+
+    @Test
+    void bookingReplayedBeforeTheExpiryOfTheHoldItReplacedKeepsTheSeat() throws IOException {
+        // the order a journal written by the old expiry path could contain
+        try (BookingJournal journal = BookingJournal.open(dir, 64 << 20, 0, null)) {
+            journal.logUser(1, "user1", "user1@example.com");
+            journal.logEvent(EVENT_ID, "Concert", "2025-01-01", "Arena");
+            journal.logSeat(EVENT_ID, SEAT_ID, "A" + SEAT_ID, 1000);
+            long now = System.currentTimeMillis();
+            journal.logBooking(new Booking(101, 1, EVENT_ID, SEAT_ID, "A" + SEAT_ID, now, BookingStatus.HELD,
+                    now + 60_000), now + 60_000);
+            journal.logBooking(new Booking(102, 1, EVENT_ID, SEAT_ID, "A" + SEAT_ID, now, BookingStatus.BOOKED), 0);
+            journal.logExpired(101);
+        }
+
+        manager = BookingManager.recover(dir, 60_000, NO_SNAPSHOTS);
+
+        assertStatus(101, BookingStatus.EXPIRED);
+        assertStatus(102, BookingStatus.BOOKED);
+        assertNull(manager.createBooking(1, EVENT_ID, SEAT_ID));
+    }
+
+    @Test
+    void removedSeatStaysOffSaleAfterRestart() throws IOException {
+        manager = start(60_000);
+        assertTrue(manager.removeSeatFromEvent(EVENT_ID, SEAT_ID));
+
+        restart(60_000);
+        assertRemoved(SEAT_ID);
+
+        manager.snapshot(); // from here the removal is only in the snapshot
+        restart(60_000);
+        assertRemoved(SEAT_ID);
+        assertNotNull(manager.createBooking(1, EVENT_ID, SEAT_ID + 1));
+    }
+
+    private void assertRemoved(int seatId) {
+        assertNull(manager.createBooking(1, EVENT_ID, seatId));
+        assertTrue(manager.getSeatsForEvent(EVENT_ID).stream().noneMatch(seat -> seat.getSeatId() == seatId));
+    }
+
+    private BookingManager start(long holdTtlMillis) throws IOException {
+        BookingManager started = BookingManager.recover(dir, holdTtlMillis, NO_SNAPSHOTS);
+        for (int u = 1; u <= 3; u++) {
+            started.addUser(new User(u, "user" + u, "user" + u + "@example.com"));
+        }
+        started.addEvent(new Event(EVENT_ID, "Concert", "2025-01-01", "Arena"));
+        for (int s = 0; s < 20; s++) {
+            started.addSeatToEvent(EVENT_ID, new Seat(s, EVENT_ID, "A" + s, BigDecimal.TEN));
+        }
+        return started;
+    }
+
+    private void restart(long holdTtlMillis) throws IOException {
+        manager.shutdown();
+        manager = BookingManager.recover(dir, holdTtlMillis, NO_SNAPSHOTS);
+    }
+
+    private void assertStatus(int bookingId, BookingStatus expected) {
+        Booking booking = manager.getBookingsForEvent(EVENT_ID).stream()
+                .filter(b -> b.getBookingId() == bookingId)
+                .findFirst()
+                .orElse(null);
+        assertNotNull(booking, "booking " + bookingId);
+        assertEquals(expected, booking.getBookingStatus(), "booking " + bookingId);
+    }
+
+    private void awaitStatus(int bookingId, BookingStatus expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            boolean reached = manager.getBookingsForEvent(EVENT_ID).stream()
+                    .anyMatch(b -> b.getBookingId() == bookingId && b.getBookingStatus() == expected);
+            if (reached) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("booking " + bookingId + " never became " + expected);
+    }
+}
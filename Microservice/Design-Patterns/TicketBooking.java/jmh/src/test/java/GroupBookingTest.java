@@ -0,0 +1,121 @@
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * createBookings books every seat of a group or none of them, alone and while
+ * other threads race for overlapping groups.
+ */
+class GroupBookingTest {
+
+    private static final int EVENT_ID = 1;
+    private static final int SEATS = 2_000;
+    private static final int THREADS = 8;
+
+    private BookingManager manager;
+
+    @AfterEach
+    void shutdown() {
+        if (manager != null) {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    void groupWithATakenSeatBooksNothing() {
+        manager = newManager();
+        assertNotNull(manager.createBooking(1, EVENT_ID, 5));
+        assertNotNull(manager.holdSeat(1, EVENT_ID, 9));
+
+        assertTrue(manager.createBookings(2, EVENT_ID, List.of(3, 4, 5, 6)).isEmpty());
+        assertTrue(manager.createBookings(2, EVENT_ID, List.of(8, 9, 10)).isEmpty());
+
+        assertEquals(4, manager.createBookings(2, EVENT_ID, List.of(3, 4, 6, 8)).size());
+        assertEquals(6, manager.getBookingCount()); // the booking, the hold and the group
+    }
+
+    @Test
+    void groupWithAnUnknownSeatBooksNothing() {
+        manager = newManager();
+
+        assertTrue(manager.createBookings(1, EVENT_ID, List.of(1, 2, SEATS + 1)).isEmpty());
+
+        assertEquals(0, manager.getBookingCount());
+        assertEquals(2, manager.createBookings(1, EVENT_ID, List.of(1, 2)).size());
+    }
+
+    @Test
+    void repeatedSeatIsBookedOnce() {
+        manager = newManager();
+
+        assertEquals(2, manager.createBookings(1, EVENT_ID, List.of(7, 7, 8)).size());
+        assertEquals(2, manager.getBookingCount());
+    }
+
+    @ParameterizedTest(name = "shardMode={0}")
+    @ValueSource(booleans = {false, true})
+    void overlappingGroupsAreBookedWholeOrNotAtAll(boolean shardMode) throws Exception {
+        manager = newManager();
+        manager.setShardMode(EVENT_ID, shardMode);
+        AtomicInteger seatsFromGroups = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int userId = t + 1;
+                workers.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 500; i++) {
+                        // adjacent seats around a random point, so groups overlap a lot
+                        int size = 2 + random.nextInt(4);
+                        int first = random.nextInt(SEATS - size);
+                        List<Integer> seatIds = new ArrayList<>(size);
+                        for (int s = 0; s < size; s++) {
+                            seatIds.add(first + s);
+                        }
+                        int booked = manager.createBookings(userId, EVENT_ID, seatIds).size();
+                        assertTrue(booked == 0 || booked == size, "half-booked group " + seatIds);
+                        seatsFromGroups.addAndGet(booked);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        long bookedSeats = manager.getSeatsForEvent(EVENT_ID).stream().filter(Seat::isBooked).count();
+        assertTrue(seatsFromGroups.get() > 0);
+        assertEquals(seatsFromGroups.get(), bookedSeats);
+        assertEquals(bookedSeats, manager.getBookingCount());
+    }
+
+    private static BookingManager newManager() {
+        BookingManager created = new BookingManager();
+        for (int u = 1; u <= THREADS; u++) {
+            created.addUser(new User(u, "user" + u, "user" + u + "@example.com"));
+        }
+        created.addEvent(new Event(EVENT_ID, "Group Sale", "2025-01-01", "Arena"));
+        for (int s = 0; s < SEATS; s++) {
+            created.addSeatToEvent(EVENT_ID, new Seat(s, EVENT_ID, "S" + s, BigDecimal.TEN));
+        }
+        return created;
+    }
+}
@@ -0,0 +1,62 @@
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Bad amounts are turned away at the API edge with IllegalArgumentException and
+ * leave the engine as it was.
+ */
+class MoneyTest {
+
+    @Test
+    void wholeCentsConvertBothWays() {
+        assertEquals(1050, Money.toMinor(new BigDecimal("10.5")));
+        assertEquals(new BigDecimal("10.50"), Money.fromMinor(1050));
+    }
+
+    @Test
+    void nullAndSubCentAmountsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinor(null));
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinor(new BigDecimal("0.001")));
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinor(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void badSeatPriceLeavesNoSeatBehind() {
+        BookingManager manager = new BookingManager();
+        manager.addEvent(new Event(1, "Concert", "2025-01-01", "Arena"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.addSeatToEvent(1, new Seat(1, 1, "A1", new BigDecimal("9.999"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.addSeatToEvent(1, new Seat(2, 1, "A2", null)));
+
+        assertTrue(manager.getSeatsForEvent(1).isEmpty());
+        manager.addSeatToEvent(1, new Seat(1, 1, "A1", BigDecimal.TEN));
+        assertEquals(1, manager.getSeatsForEvent(1).size());
+        manager.shutdown();
+    }
+
+    @Test
+    void badPaymentAmountLeavesTheHoldUnpaid() {
+        BookingManager manager = new BookingManager();
+        manager.addUser(new User(1, "user1", "user1@example.com"));
+        manager.addEvent(new Event(1, "Concert", "2025-01-01", "Arena"));
+        manager.addSeatToEvent(1, new Seat(1, 1, "A1", BigDecimal.TEN));
+        Booking hold = manager.holdSeat(1, 1, 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.processPayment(hold.getBookingId(), new BigDecimal("10.001")));
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.processPaymentAsync(hold.getBookingId(), null));
+
+        assertEquals(BookingStatus.HELD, hold.getBookingStatus());
+        manager.processPayment(hold.getBookingId(), BigDecimal.TEN);
+        assertEquals(BookingStatus.BOOKED, hold.getBookingStatus());
+        manager.shutdown();
+    }
+}
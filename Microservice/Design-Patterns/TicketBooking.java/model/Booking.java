@@ -1,26 +1,41 @@
 // No package; using default to simplify running
 
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
 /*
- * For now we are booking one sheet for one user will change this later
+ * One seat for one user. Group purchases (BookingManager.createBookings) get
+ * one Booking per seat, all created together or not at all.
  */
 public class Booking{
+    private static final AtomicReferenceFieldUpdater<Booking, BookingStatus> STATUS =
+            AtomicReferenceFieldUpdater.newUpdater(Booking.class, BookingStatus.class, "status");
+
     private final int bookingId;
     private final int userId;
     private final int eventId;
     private final int seatId;
     private final String seatNumber;
-    private final String bookingDate;
-    private String status;
+    private final long bookingTime; // epoch millis, formatted only when asked for
+    private volatile BookingStatus status; // HELD -> BOOKED, or HELD -> EXPIRED by the hold wheel
+    private final long holdExpiresAt; // epoch millis, 0 unless the booking started as a hold
 
 
-    public Booking(int bookingId, int userId, int eventId, int seatId, String seatNumber, String bookingDate, String status) {
+    public Booking(int bookingId, int userId, int eventId, int seatId, String seatNumber, long bookingTime,
+            BookingStatus status) {
+        this(bookingId, userId, eventId, seatId, seatNumber, bookingTime, status, 0);
+    }
+
+    public Booking(int bookingId, int userId, int eventId, int seatId, String seatNumber, long bookingTime,
+            BookingStatus status, long holdExpiresAt) {
         this.bookingId = bookingId;
         this.userId = userId;
         this.eventId = eventId;
         this.seatId = seatId;
         this.seatNumber = seatNumber;
-        this.bookingDate = bookingDate;
+        this.bookingTime = bookingTime;
         this.status = status;
+        this.holdExpiresAt = holdExpiresAt;
     }
 
     public int getBookingId() {
@@ -43,16 +58,33 @@ public class Booking{
         return seatNumber;
     }
 
+    public long getBookingTime() {
+        return bookingTime;
+    }
+
     public String getBookingDate() {
-        return bookingDate;
+        return new Date(bookingTime).toString();
     }
 
-    public String getStatus() {
+    public BookingStatus getBookingStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public String getStatus() {
+        return status.label();
+    }
+
+    public long getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+
+    public void setStatus(BookingStatus status) {
         this.status = status;
     }
 
+    // The one step that settles a hold: exactly one of payment and expiry moves it off HELD.
+    public boolean compareAndSetStatus(BookingStatus expect, BookingStatus update) {
+        return STATUS.compareAndSet(this, expect, update);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+public enum BookingStatus {
+    HELD,    // seat reserved for checkout until the hold TTL runs out
+    BOOKED,
+    EXPIRED; // hold ran out before payment, the seat went back on sale
+
+    private final String label = name().toLowerCase();
+
+    // The lower-case form the API has always returned ("held", "booked", "expired").
+    public String label() { return label; }
+
+    public static BookingStatus fromLabel(String label) {
+        return valueOf(label.toUpperCase());
+    }
+}
@@ -6,7 +6,8 @@ public class Event {
     private final String date;
     private final String location;
 
-    private final List<Seat> seats = new ArrayList<>();
+    // indexed by seatId and seatNumber, so a booking never scans the seat list
+    private final SeatStore seats = new SeatStore();
 
     public Event(int eventId, String name, String date, String location){
         this.eventId = eventId;
@@ -20,14 +21,48 @@ public class Event {
     public String getName() { return name; }
     public String getDate() { return date; }
     public String getLocation() { return location; }
-    public List<Seat> getSeats() { return seats; }
+    public SeatStore getSeatStore() { return seats; }
+
+    // Snapshot of all live seats; O(n), keep it off the booking path.
+    public List<Seat> getSeats() {
+        int size = seats.size();
+        List<Seat> res = new ArrayList<>(size);
+        for (int slot = 0; slot < size; slot++) {
+            if (seats.stateAt(slot) != SeatStore.REMOVED) {
+                res.add(seats.seatAt(slot, eventId));
+            }
+        }
+        return res;
+    }
+
+    public Seat getSeat(int seatId) {
+        int slot = seats.slotOf(seatId);
+        return slot >= 0 ? seats.seatAt(slot, eventId) : null;
+    }
+
+    public Seat getSeatByNumber(String seatNumber) {
+        int slot = seats.slotOfNumber(seatNumber);
+        return slot >= 0 ? seats.seatAt(slot, eventId) : null;
+    }
+
+    public List<Seat> findBestAvailable(int count) {
+        int[] slots = seats.findContiguousFree(count);
+        if (slots == null) {
+            return new ArrayList<>();
+        }
+        List<Seat> res = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            res.add(seats.seatAt(slot, eventId));
+        }
+        return res;
+    }
 
     public void addSeat(Seat seat){
-        seats.add(seat);
+        seats.add(seat.getSeatId(), seat.getSeatNumber(), seat.getPrice());
     }
 
     public void removeSeat(Seat seat){
-        seats.remove(seat);
+        seats.remove(seat.getSeatId());
     }
     
 }
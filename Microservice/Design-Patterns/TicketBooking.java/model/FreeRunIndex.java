@@ -0,0 +1,315 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Free-space index for "best available N adjacent seats" queries.
+ *
+ * Every row keeps a segment tree over its seats in position order storing, per
+ * node, the longest free run plus the free prefix/suffix lengths, so the leftmost
+ * run of N free seats in a row is found in O(log seats). Every section keeps a max
+ * tree over its rows' longest runs, so the front-most row that can fit N seats
+ * is found in O(log rows).
+ *
+ * SeatStore's CAS stays the source of truth. After each successful state change
+ * the row re-reads the seat's current state under its own lock, so updates that
+ * land out of order still converge. A query only proposes seats; the caller
+ * claims them with a CAS and asks again if it lost the race.
+ */
+public class FreeRunIndex {
+
+    private final Map<String, Section> sectionsByName = new HashMap<>();
+    private volatile Section[] sections = new Section[0];
+    // slot -> row and position, written once when the seat is added
+    private volatile Row[] rowOfSlot = new Row[64];
+    private volatile int[] positionOfSlot = new int[64];
+
+    // Called by SeatStore.add under its lock, before the slot is published.
+    void add(int slot, String seatNumber) {
+        if (slot >= rowOfSlot.length) {
+            positionOfSlot = Arrays.copyOf(positionOfSlot, positionOfSlot.length * 2);
+            rowOfSlot = Arrays.copyOf(rowOfSlot, rowOfSlot.length * 2);
+        }
+        int position = Seat.positionOf(seatNumber);
+        if (position < 0) {
+            return; // no seat number we can place in a row
+        }
+        String sectionName = Seat.sectionOf(seatNumber);
+        Section section = sectionsByName.get(sectionName);
+        if (section == null) {
+            section = new Section();
+            sectionsByName.put(sectionName, section);
+            Section[] grown = new Section[sections.length + 1];
+            System.arraycopy(sections, 0, grown, 0, sections.length);
+            grown[sections.length] = section;
+            sections = grown;
+        }
+        Row row = section.row(Seat.rowOf(seatNumber));
+        positionOfSlot[slot] = position;
+        rowOfSlot[slot] = row;
+        row.place(position, slot);
+    }
+
+    // Re-syncs the index with the seat's current state in seats after a CAS on it.
+    void refresh(SeatStore seats, int slot) {
+        Row[] rows = rowOfSlot;
+        Row row = slot < rows.length ? rows[slot] : null;
+        if (row != null) {
+            row.refresh(positionOfSlot[slot], slot, seats);
+        }
+    }
+
+    /*
+     * Slots of the best run of count adjacent free seats: the front-most row that
+     * fits them (sections and rows in the order they were added), leftmost first.
+     * Returns null if no row can fit them.
+     */
+    int[] findContiguous(int count) {
+        if (count <= 0) {
+            return null;
+        }
+        for (Section section : sections) {
+            int[] slots = section.findContiguous(count);
+            if (slots != null) {
+                return slots;
+            }
+        }
+        return null;
+    }
+
+    private static final class Section {
+        private final Map<String, Row> rowsByName = new HashMap<>();
+        private final List<Row> rows = new ArrayList<>();
+        private int[] bestTree = new int[2]; // max of rows' longest runs, leaves from bestTree.length / 2
+
+        synchronized Row row(String name) {
+            Row row = rowsByName.get(name);
+            if (row == null) {
+                row = new Row(this, rows.size());
+                rowsByName.put(name, row);
+                rows.add(row);
+                int leaves = bestTree.length / 2;
+                if (rows.size() > leaves) {
+                    int[] grown = new int[leaves * 4];
+                    for (int i = 0; i < rows.size() - 1; i++) {
+                        grown[leaves * 2 + i] = bestTree[leaves + i];
+                    }
+                    bestTree = grown;
+                    for (int node = leaves * 2 - 1; node > 0; node--) {
+                        bestTree[node] = Math.max(bestTree[2 * node], bestTree[2 * node + 1]);
+                    }
+                }
+            }
+            return row;
+        }
+
+        synchronized void updateRow(int rowIndex, int best) {
+            int node = bestTree.length / 2 + rowIndex;
+            bestTree[node] = best;
+            for (node >>= 1; node > 0; node >>= 1) {
+                bestTree[node] = Math.max(bestTree[2 * node], bestTree[2 * node + 1]);
+            }
+        }
+
+        int[] findContiguous(int count) {
+            // a row found here can lose its run before we lock it, so re-check with the row's own tree
+            for (int from = 0; ; ) {
+                Row row;
+                synchronized (this) {
+                    int rowIndex = firstRowFitting(count, from);
+                    if (rowIndex < 0) {
+                        return null;
+                    }
+                    row = rows.get(rowIndex);
+                }
+                int[] slots = row.findContiguous(count);
+                if (slots != null) {
+                    return slots;
+                }
+                from = row.index + 1;
+            }
+        }
+
+        // First row at or after from whose longest run is at least count, or -1.
+        private int firstRowFitting(int count, int from) {
+            int leaves = bestTree.length / 2;
+            if (from >= leaves) {
+                return -1;
+            }
+            return descend(1, 0, leaves, count, from);
+        }
+
+        private int descend(int node, int lo, int hi, int count, int from) {
+            if (hi <= from || bestTree[node] < count) {
+                return -1;
+            }
+            if (hi - lo == 1) {
+                return lo;
+            }
+            int mid = (lo + hi) >>> 1;
+            int left = descend(2 * node, lo, mid, count, from);
+            return left >= 0 ? left : descend(2 * node + 1, mid, hi, count, from);
+        }
+    }
+
+    /*
+     * A row's seats in position order, one leaf per seat, so the tree is sized by
+     * the seats the row has rather than by its highest seat number. Two neighbouring
+     * leaves only form a run if their positions are consecutive, so a gap in the
+     * numbering (A1, A2, A5) still splits runs.
+     */
+    private static final class Row {
+        private final Section section;
+        private final int index;
+        private int size;
+        private int capacity = 1; // leaves, a power of two
+        private int[] positions = new int[1];
+        private int[] slotAt = {-1};
+        private boolean[] free = new boolean[1];
+        private int[] best = new int[2];
+        private int[] prefix = new int[2];
+        private int[] suffix = new int[2];
+
+        Row(Section section, int index) {
+            this.section = section;
+            this.index = index;
+        }
+
+        synchronized void place(int position, int slot) {
+            boolean grown = size == capacity;
+            if (grown) {
+                capacity *= 2;
+                positions = Arrays.copyOf(positions, capacity);
+                slotAt = Arrays.copyOf(slotAt, capacity);
+                Arrays.fill(slotAt, size, capacity, -1);
+                free = Arrays.copyOf(free, capacity);
+            }
+            int rank = size;
+            while (rank > 0 && positions[rank - 1] > position) {
+                rank--;
+            }
+            System.arraycopy(positions, rank, positions, rank + 1, size - rank);
+            System.arraycopy(slotAt, rank, slotAt, rank + 1, size - rank);
+            System.arraycopy(free, rank, free, rank + 1, size - rank);
+            positions[rank] = position;
+            slotAt[rank] = slot;
+            size++;
+            if (grown || rank < size - 1) {
+                free[rank] = true;
+                rebuild(); // the row grew, or a seat was added out of order and shifted the others
+            } else {
+                update(rank, true);
+            }
+        }
+
+        synchronized void refresh(int position, int slot, SeatStore seats) {
+            int rank = rankOf(position, slot);
+            if (rank >= 0) {
+                update(rank, seats.stateAt(slot) == SeatStore.FREE);
+            }
+        }
+
+        synchronized int[] findContiguous(int count) {
+            if (best[1] < count) {
+                return null;
+            }
+            int node = 1;
+            int lo = 0;
+            int len = capacity;
+            while (len > 1) {
+                int half = len / 2;
+                int left = 2 * node;
+                if (best[left] >= count) {
+                    node = left;
+                    len = half;
+                } else if (adjacent(lo + half) && suffix[left] + prefix[left + 1] >= count) {
+                    lo = lo + half - suffix[left];
+                    break;
+                } else {
+                    node = left + 1;
+                    lo += half;
+                    len = half;
+                }
+            }
+            int[] slots = new int[count];
+            for (int i = 0; i < count; i++) {
+                slots[i] = slotAt[lo + i];
+            }
+            return slots;
+        }
+
+        private int rankOf(int position, int slot) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (positions[mid] < position) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            for (int rank = lo; rank < size && positions[rank] == position; rank++) {
+                if (slotAt[rank] == slot) {
+                    return rank;
+                }
+            }
+            return -1;
+        }
+
+        // Whether the seats at rank - 1 and rank sit next to each other.
+        private boolean adjacent(int rank) {
+            return rank > 0 && rank < size && positions[rank] == positions[rank - 1] + 1;
+        }
+
+        private void update(int rank, boolean free) {
+            int before = best[1];
+            this.free[rank] = free;
+            int node = capacity + rank;
+            int value = free && slotAt[rank] >= 0 ? 1 : 0;
+            best[node] = value;
+            prefix[node] = value;
+            suffix[node] = value;
+            for (int len = 2; node > 1; len *= 2) {
+                node >>= 1;
+                combine(node, node * len - capacity, len);
+            }
+            if (best[1] != before) {
+                section.updateRow(index, best[1]);
+            }
+        }
+
+        private void combine(int node, int lo, int len) {
+            int left = 2 * node;
+            int right = left + 1;
+            int half = len / 2;
+            boolean joined = adjacent(lo + half);
+            prefix[node] = prefix[left] == half && joined ? half + prefix[right] : prefix[left];
+            suffix[node] = suffix[right] == half && joined ? half + suffix[left] : suffix[right];
+            best[node] = Math.max(Math.max(best[left], best[right]), joined ? suffix[left] + prefix[right] : 0);
+        }
+
+        private void rebuild() {
+            int before = best[1];
+            best = new int[2 * capacity];
+            prefix = new int[2 * capacity];
+            suffix = new int[2 * capacity];
+            for (int rank = 0; rank < size; rank++) {
+                int value = free[rank] ? 1 : 0;
+                best[capacity + rank] = value;
+                prefix[capacity + rank] = value;
+                suffix[capacity + rank] = value;
+            }
+            for (int node = capacity - 1; node > 0; node--) {
+                int depth = 31 - Integer.numberOfLeadingZeros(node);
+                int len = capacity >> depth;
+                combine(node, node * len - capacity, len);
+            }
+            if (best[1] != before) {
+                section.updateRow(index, best[1]);
+            }
+        }
+    }
+}
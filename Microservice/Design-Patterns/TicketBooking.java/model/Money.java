@@ -0,0 +1,29 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/*
+ * Prices and amounts are kept as a long count of minor units (cents) inside the
+ * engine; BigDecimal only appears at the API edge.
+ */
+public final class Money {
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    // Rejects fractions of a cent instead of silently rounding them.
+    public static long toMinor(BigDecimal amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+        try {
+            return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " is not a whole number of cents", e);
+        }
+    }
+
+    public static BigDecimal fromMinor(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+}
@@ -1,27 +1,33 @@
 import java.math.BigDecimal;
+import java.util.Date;
 public class Payment {
 
     private final int paymentId;
     private final int bookingId;
-    private final BigDecimal amount;
-    private final String paymentDate;
-    private String paymentStatus;
+    private final long amountMinor; // see Money
+    private final long paymentTime; // epoch millis
+    private PaymentStatus paymentStatus;
 
-    public Payment(int paymentId, int bookingId, BigDecimal amount, String paymentDate, String paymentStatus){
+    public Payment(int paymentId, int bookingId, long amountMinor, long paymentTime, PaymentStatus paymentStatus){
         this.paymentId = paymentId;
         this.bookingId = bookingId;
-        this.amount = amount;
-        this.paymentDate = paymentDate;
+        this.amountMinor = amountMinor;
+        this.paymentTime = paymentTime;
         this.paymentStatus = paymentStatus;
     }
 
     public int getPaymentId() { return paymentId; }
     public int getBookingId() { return bookingId; }
-    public BigDecimal getAmount() { return amount; }
-    public String getPaymentDate() { return paymentDate; }
-    public String getPaymentStatus() { return paymentStatus; }
+    public long getAmountMinor() { return amountMinor; }
+    public long getPaymentTime() { return paymentTime; }
+    public PaymentStatus getPaymentStatus() { return paymentStatus; }
+    public String getStatus() { return paymentStatus.label(); }
 
-    public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
+    // formatted on demand, the engine itself only deals in the raw values
+    public BigDecimal getAmount() { return Money.fromMinor(amountMinor); }
+    public String getPaymentDate() { return new Date(paymentTime).toString(); }
+
+    public void setPaymentStatus(PaymentStatus paymentStatus) { this.paymentStatus = paymentStatus; }
     
     
 }
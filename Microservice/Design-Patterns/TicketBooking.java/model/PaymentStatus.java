@@ -0,0 +1,12 @@
+public enum PaymentStatus {
+    PAID; // the engine records a payment only once it has taken the money
+
+    private final String label = name().toLowerCase();
+
+    // The lower-case form the API has always returned ("paid").
+    public String label() { return label; }
+
+    public static PaymentStatus fromLabel(String label) {
+        return valueOf(label.toUpperCase());
+    }
+}
@@ -1,23 +1,70 @@
 import java.math.BigDecimal;
+
+/*
+ * Describes a seat when it is added to an event, and is handed back as a
+ * point-in-time snapshot by lookups. The live state is kept in the event's SeatStore.
+ */
 public class Seat {
     private final int seatId;
     private final String seatNumber;
     private final BigDecimal price;
-    private  boolean isBooked = false;
+    private final boolean isBooked;
    private final int eventId; // Event ownership
         
      public Seat(int seatId,int eventId, String seatNumber, BigDecimal price) {
+        this(seatId, eventId, seatNumber, price, false);
+    }
+
+    Seat(int seatId, int eventId, String seatNumber, BigDecimal price, boolean isBooked) {
         this.seatId = seatId;
         this.seatNumber = seatNumber;
         this.eventId = eventId;
         this.price = price;
+        this.isBooked = isBooked;
     }
 
     public int getSeatId() { return seatId; }
     public String getSeatNumber() { return seatNumber; }
     public BigDecimal getPrice() { return price; }
     public boolean isBooked() { return isBooked; }
-    public void setBooked(boolean booked) { this.isBooked = booked; }
     public int getEventId() { return eventId; }
+
+    // Coordinates derived from seatNumber, e.g. "A12" is row A, position 12 and "101-C7" is section 101, row C, position 7.
+    public String getSection() { return sectionOf(seatNumber); }
+    public String getRow() { return rowOf(seatNumber); }
+    public int getPosition() { return positionOf(seatNumber); }
+
+    static String sectionOf(String seatNumber) {
+        int dash = seatNumber == null ? -1 : seatNumber.lastIndexOf('-');
+        return dash < 0 ? "" : seatNumber.substring(0, dash);
+    }
+
+    static String rowOf(String seatNumber) {
+        if (seatNumber == null) {
+            return "";
+        }
+        int start = seatNumber.lastIndexOf('-') + 1;
+        return seatNumber.substring(start, digitsStart(seatNumber, start));
+    }
+
+    // -1 if the seat number does not end in a position
+    static int positionOf(String seatNumber) {
+        if (seatNumber == null) {
+            return -1;
+        }
+        int digits = digitsStart(seatNumber, seatNumber.lastIndexOf('-') + 1);
+        if (digits == seatNumber.length() || seatNumber.length() - digits > 9) {
+            return -1;
+        }
+        return Integer.parseInt(seatNumber, digits, seatNumber.length(), 10);
+    }
+
+    private static int digitsStart(String seatNumber, int from) {
+        int i = seatNumber.length();
+        while (i > from && Character.isDigit(seatNumber.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
     
 }
@@ -0,0 +1,262 @@
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/*
+ * Column store for the seats of one event.
+ *
+ * Instead of one Seat object (plus a BigDecimal) per seat, every seat is a slot
+ * in a handful of primitive arrays. Two open-addressing tables map seatId and
+ * seatNumber to a slot, so a booking is a constant-time probe instead of a scan.
+ *
+ * Columns live in fixed-size pages that are never copied, so a CAS on a seat's
+ * state can't be lost while another thread is adding seats. Seats are added by
+ * one writer at a time; lookups and state changes are lock-free.
+ */
+public class SeatStore {
+    static final int FREE = 0;
+    static final int BOOKED = 1;
+    static final int REMOVED = 2;
+    // a held seat stores -holdToken (the bookingId), so only that hold can confirm or release it
+
+    private static final int PAGE_SHIFT = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final class Page {
+        final int[] seatIds = new int[PAGE_SIZE];
+        final String[] seatNumbers = new String[PAGE_SIZE];
+        final long[] prices = new long[PAGE_SIZE]; // minor units, see Money
+        final AtomicIntegerArray states = new AtomicIntegerArray(PAGE_SIZE);
+    }
+
+    private volatile Page[] pages = new Page[0];
+    // seatId -> slot, stored as [key, slot + 1] pairs; slot + 1 == 0 marks an empty bucket
+    private volatile int[] idTable = new int[2 * 16];
+    // seatNumber hash -> slot + 1, the key is compared against the seatNumbers column
+    private volatile int[] numberTable = new int[16];
+    // published last; a reader never trusts a slot at or beyond the size it has seen
+    private volatile int size;
+    private final FreeRunIndex freeRuns = new FreeRunIndex();
+
+    public int size() { return size; }
+
+    public synchronized int add(int seatId, String seatNumber, BigDecimal price) {
+        int existing = slotOf(seatId);
+        if (existing >= 0) {
+            throw new IllegalArgumentException("Seat " + seatId + " already exists");
+        }
+        long priceMinor = Money.toMinor(price); // before anything changes, so a bad price leaves no half-added seat
+        int slot = size;
+        Page[] currentPages = pages;
+        if ((slot >>> PAGE_SHIFT) == currentPages.length) {
+            Page[] grown = new Page[currentPages.length + 1];
+            System.arraycopy(currentPages, 0, grown, 0, currentPages.length);
+            grown[currentPages.length] = new Page();
+            pages = grown;
+            currentPages = grown;
+        }
+        Page page = currentPages[slot >>> PAGE_SHIFT];
+        int offset = slot & PAGE_MASK;
+        page.seatIds[offset] = seatId;
+        page.seatNumbers[offset] = seatNumber;
+        page.prices[offset] = priceMinor;
+
+        if ((slot + 1) * 2 > numberTable.length) {
+            rehash(numberTable.length * 2);
+        }
+        insertId(idTable, seatId, slot);
+        if (seatNumber != null) {
+            insertNumber(numberTable, seatNumber, slot);
+        }
+        freeRuns.add(slot, seatNumber);
+        size = slot + 1;
+        return slot;
+    }
+
+    /*
+     * Removed seats keep their slot (and their index entries) but can never be booked again.
+     */
+    public boolean remove(int seatId) {
+        int slot = slotOf(seatId);
+        if (slot < 0) {
+            return false;
+        }
+        Page page = pages[slot >>> PAGE_SHIFT];
+        int offset = slot & PAGE_MASK;
+        while (true) {
+            int state = page.states.get(offset);
+            if (state == REMOVED) {
+                return false;
+            }
+            if (page.states.compareAndSet(offset, state, REMOVED)) {
+                freeRuns.refresh(this, slot);
+                return true;
+            }
+        }
+    }
+
+    // Returns the slot of a live seat, or -1.
+    public int slotOf(int seatId) {
+        int limit = size;
+        int[] table = idTable;
+        int mask = (table.length >>> 1) - 1;
+        for (int bucket = mix(seatId) & mask; ; bucket = (bucket + 1) & mask) {
+            int slot = table[2 * bucket + 1] - 1;
+            if (slot < 0) {
+                return -1;
+            }
+            if (slot < limit && table[2 * bucket] == seatId && stateAt(slot) != REMOVED) {
+                return slot;
+            }
+        }
+    }
+
+    // Returns the slot of a live seat, or -1.
+    public int slotOfNumber(String seatNumber) {
+        if (seatNumber == null) {
+            return -1;
+        }
+        int limit = size;
+        int[] table = numberTable;
+        int mask = table.length - 1;
+        for (int bucket = mix(seatNumber.hashCode()) & mask; ; bucket = (bucket + 1) & mask) {
+            int slot = table[bucket] - 1;
+            if (slot < 0) {
+                return -1;
+            }
+            if (slot < limit && seatNumber.equals(seatNumberAt(slot)) && stateAt(slot) != REMOVED) {
+                return slot;
+            }
+        }
+    }
+
+    public int seatIdAt(int slot) { return pages[slot >>> PAGE_SHIFT].seatIds[slot & PAGE_MASK]; }
+    public String seatNumberAt(int slot) { return pages[slot >>> PAGE_SHIFT].seatNumbers[slot & PAGE_MASK]; }
+    public long priceMinorAt(int slot) { return pages[slot >>> PAGE_SHIFT].prices[slot & PAGE_MASK]; }
+    public BigDecimal priceAt(int slot) { return Money.fromMinor(priceMinorAt(slot)); }
+    public int stateAt(int slot) { return pages[slot >>> PAGE_SHIFT].states.get(slot & PAGE_MASK); }
+    public boolean isBookedAt(int slot) { return stateAt(slot) != FREE; }
+    public boolean isHeldAt(int slot) { return stateAt(slot) < 0; }
+
+    /*
+     * Exactly one caller wins a free seat, no matter how many threads race for it.
+     */
+    public boolean tryBook(int slot) {
+        return transition(slot, FREE, BOOKED);
+    }
+
+    /*
+     * All-or-nothing claim of several seats. Slots must be sorted and distinct:
+     * claiming in slot order means two overlapping groups always collide on the
+     * same first seat, so one of them wins outright instead of both backing off.
+     */
+    public boolean tryBookAll(int[] slots, int count) {
+        for (int i = 0; i < count; i++) {
+            if (!tryBook(slots[i])) {
+                for (int j = i - 1; j >= 0; j--) {
+                    release(slots[j]);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean release(int slot) {
+        return transition(slot, BOOKED, FREE);
+    }
+
+    /*
+     * Recovery only: marks the seat booked whatever it holds now, unless it was
+     * removed. Replay may see a booking before the expiry of a hold it replaced.
+     */
+    public void forceBook(int slot) {
+        Page page = pages[slot >>> PAGE_SHIFT];
+        int offset = slot & PAGE_MASK;
+        while (true) {
+            int state = page.states.get(offset);
+            if (state == BOOKED || state == REMOVED) {
+                return;
+            }
+            if (page.states.compareAndSet(offset, state, BOOKED)) {
+                if (state == FREE) {
+                    freeRuns.refresh(this, slot);
+                }
+                return;
+            }
+        }
+    }
+
+    public boolean tryHold(int slot, int holdToken) {
+        return transition(slot, FREE, -holdToken);
+    }
+
+    // Fails if the hold already expired, even if someone else holds the seat now.
+    public boolean confirmHold(int slot, int holdToken) {
+        return transition(slot, -holdToken, BOOKED);
+    }
+
+    public boolean releaseHold(int slot, int holdToken) {
+        return transition(slot, -holdToken, FREE);
+    }
+
+    /*
+     * Slots (sorted) of the best run of count adjacent free seats, or null. This
+     * is only a proposal; claim it with tryBookAll and ask again if that fails.
+     */
+    public int[] findContiguousFree(int count) {
+        return freeRuns.findContiguous(count);
+    }
+
+    private boolean transition(int slot, int expect, int update) {
+        if (!pages[slot >>> PAGE_SHIFT].states.compareAndSet(slot & PAGE_MASK, expect, update)) {
+            return false;
+        }
+        if ((expect == FREE) != (update == FREE)) {
+            freeRuns.refresh(this, slot);
+        }
+        return true;
+    }
+
+    public Seat seatAt(int slot, int eventId) {
+        return new Seat(seatIdAt(slot), eventId, seatNumberAt(slot), priceAt(slot), isBookedAt(slot));
+    }
+
+    private void rehash(int capacity) {
+        int[] ids = new int[2 * capacity];
+        int[] numbers = new int[capacity];
+        for (int slot = 0; slot < size; slot++) {
+            insertId(ids, seatIdAt(slot), slot);
+            String seatNumber = seatNumberAt(slot);
+            if (seatNumber != null) {
+                insertNumber(numbers, seatNumber, slot);
+            }
+        }
+        idTable = ids;
+        numberTable = numbers;
+    }
+
+    private static void insertId(int[] table, int seatId, int slot) {
+        int mask = (table.length >>> 1) - 1;
+        int bucket = mix(seatId) & mask;
+        while (table[2 * bucket + 1] != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        table[2 * bucket] = seatId;
+        table[2 * bucket + 1] = slot + 1;
+    }
+
+    private static void insertNumber(int[] table, String seatNumber, int slot) {
+        int mask = table.length - 1;
+        int bucket = mix(seatNumber.hashCode()) & mask;
+        while (table[bucket] != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        table[bucket] = slot + 1;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -17,4 +17,12 @@ public class User {
         return userId;
     }
 
+    public String getName(){
+        return name;
+    }
+
+    public String getEmail(){
+        return email;
+    }
+
 }
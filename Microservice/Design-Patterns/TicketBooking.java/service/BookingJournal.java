@@ -0,0 +1,417 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/*
+ * Append-only write-ahead journal for BookingManager.
+ *
+ * The journal is a sequence of memory-mapped segment files. Each record is
+ * framed as [length][crc32c][type + fields]; a zero length marks the end of a
+ * segment and a bad checksum marks a torn write, which is where replay stops.
+ *
+ * Appends only copy bytes into the mapping. Durability is a group commit: a
+ * writer that needs its record on disk calls awaitDurable, and whichever waiter
+ * gets the force lock first fsyncs everything written so far on behalf of all
+ * the others queued behind it.
+ *
+ * BookingSnapshot writes the same record format, so one Listener restores both.
+ */
+public class BookingJournal implements AutoCloseable {
+
+    interface Listener {
+        void onUser(int userId, String name, String email);
+        void onEvent(int eventId, String name, String date, String location);
+        void onSeat(int eventId, int seatId, String seatNumber, long priceMinor);
+        void onSeatRemoved(int eventId, int seatId);
+        void onBooking(int bookingId, int userId, int eventId, int seatId, String seatNumber,
+                long bookingTime, BookingStatus status, long holdExpiresAt);
+        void onConfirmed(int bookingId);
+        void onExpired(int bookingId);
+        void onPayment(int paymentId, int bookingId, long amountMinor, long paymentTime, PaymentStatus paymentStatus);
+    }
+
+    static final byte USER = 1;
+    static final byte EVENT = 2;
+    static final byte SEAT = 3;
+    static final byte BOOKING = 4;
+    static final byte CONFIRMED = 5;
+    static final byte EXPIRED = 6;
+    static final byte PAYMENT = 7;
+    static final byte SEAT_REMOVED = 8;
+
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+    private static final PaymentStatus[] PAYMENT_STATUSES = PaymentStatus.values();
+
+    static final int HEADER_SIZE = 8;
+    static final int MAX_BODY_SIZE = 1 << 16;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path dir;
+    private final int segmentSize;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Object forceLock = new Object();
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_BODY_SIZE); // guarded by appendLock
+    private final CRC32C crc = new CRC32C(); // guarded by appendLock
+
+    private long segment;
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private volatile long writtenPosition; // segment * segmentSize + offset of the next record
+    private volatile long durablePosition;
+
+    private BookingJournal(Path dir, int segmentSize) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+    }
+
+    /*
+     * Replays every record from segment fromSegment on into the listener, then
+     * positions the writer right after the last intact record.
+     */
+    static BookingJournal open(Path dir, int segmentSize, long fromSegment, Listener listener) throws IOException {
+        Files.createDirectories(dir);
+        BookingJournal journal = new BookingJournal(dir, segmentSize);
+        List<Long> segments = journal.segmentsFrom(fromSegment);
+        long writeSegment = segments.isEmpty() ? fromSegment : segments.get(0);
+        int writeOffset = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            long current = segments.get(i);
+            journal.map(current);
+            int end = replay(journal.mapped, listener);
+            writeSegment = current;
+            writeOffset = end;
+            if (end < 0) {
+                // torn write: wipe it and everything after it, then append from there
+                writeOffset = -end - 1;
+                journal.wipe(writeOffset);
+                for (int j = i + 1; j < segments.size(); j++) {
+                    Files.deleteIfExists(journal.segmentPath(segments.get(j)));
+                }
+                break;
+            }
+        }
+        if (journal.mapped == null || journal.segment != writeSegment) {
+            journal.map(writeSegment);
+        }
+        journal.mapped.position(writeOffset);
+        journal.writtenPosition = writeSegment * segmentSize + writeOffset;
+        journal.durablePosition = journal.writtenPosition;
+        return journal;
+    }
+
+    // Returns the offset after the last record, or -(offset + 1) if a corrupt record was found there.
+    static int replay(ByteBuffer buffer, Listener listener) {
+        CRC32C check = new CRC32C();
+        int offset = 0;
+        while (buffer.limit() - offset >= HEADER_SIZE) {
+            int length = buffer.getInt(offset);
+            if (length == 0) {
+                return offset;
+            }
+            if (length < 0 || length > MAX_BODY_SIZE || length > buffer.limit() - offset - HEADER_SIZE) {
+                return -offset - 1;
+            }
+            ByteBuffer body = buffer.duplicate();
+            body.limit(offset + HEADER_SIZE + length).position(offset + HEADER_SIZE);
+            check.reset();
+            check.update(body.duplicate());
+            if ((int) check.getValue() != buffer.getInt(offset + 4)) {
+                return -offset - 1;
+            }
+            decode(body, listener);
+            offset += HEADER_SIZE + length;
+        }
+        return offset;
+    }
+
+    public long logUser(int userId, String name, String email) {
+        appendLock.lock();
+        try {
+            ByteBuffer body = begin(USER);
+            body.putInt(userId);
+            putString(body, name);
+            putString(body, email);
+            return append();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long logEvent(int eventId, String name, String date, String location) {
+        appendLock.lock();
+        try {
+            ByteBuffer body = begin(EVENT);
+            body.putInt(eventId);
+            putString(body, name);
+            putString(body, date);
+            putString(body, location);
+            return append();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long logSeat(int eventId, int seatId, String seatNumber, long priceMinor) {
+        appendLock.lock();
+        try {
+            ByteBuffer body = begin(SEAT);
+            body.putInt(eventId).putInt(seatId);
+            putString(body, seatNumber);
+            body.putLong(priceMinor);
+            return append();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long logSeatRemoved(int eventId, int seatId) {
+        appendLock.lock();
+        try {
+            begin(SEAT_REMOVED).putInt(eventId).putInt(seatId);
+            return append();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long logBooking(Booking booking, long holdExpiresAt) {
+        appendLock.lock();
+        try {
+            ByteBuffer body = begin(BOOKING);
+            encodeBooking(body, booking, holdExpiresAt);
+            return append();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long logConfirmed(int bookingId) {
+        appendLock.lock();
+        try {
+            begin(CONFIRMED).putInt(bookingId);
+            return append();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long logExpired(int bookingId) {
+        appendLock.lock();
+        try {
+            begin(EXPIRED).putInt(bookingId);
+            return append();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long logPayment(Payment payment) {
+        appendLock.lock();
+        try {
+            ByteBuffer body = begin(PAYMENT);
+            encodePayment(body, payment);
+            return append();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /*
+     * Blocks until every record up to position is on disk. Concurrent callers
+     * share one fsync: the first one in forces the lot, the rest find their
+     * position already durable when they get the lock.
+     */
+    public void awaitDurable(long position) {
+        if (durablePosition >= position) {
+            return;
+        }
+        synchronized (forceLock) {
+            if (durablePosition >= position) {
+                return;
+            }
+            MappedByteBuffer toForce;
+            long target;
+            appendLock.lock();
+            try {
+                toForce = mapped;
+                target = writtenPosition;
+            } finally {
+                appendLock.unlock();
+            }
+            toForce.force();
+            durablePosition = target;
+        }
+    }
+
+    /*
+     * Starts a new segment and returns its number. Everything logged before the
+     * call is in earlier segments, which is what a snapshot relies on.
+     */
+    public long roll() throws IOException {
+        appendLock.lock();
+        try {
+            long next = segment + 1;
+            mapped.force();
+            map(next);
+            writtenPosition = next * segmentSize;
+            durablePosition = writtenPosition;
+            return next;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public void deleteSegmentsBefore(long keepFrom) throws IOException {
+        for (long old : segmentsFrom(0)) {
+            if (old < keepFrom) {
+                Files.deleteIfExists(segmentPath(old));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (mapped != null) {
+                mapped.force();
+                channel.close();
+                mapped = null;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    static void encodeBooking(ByteBuffer body, Booking booking, long holdExpiresAt) {
+        body.putInt(booking.getBookingId()).putInt(booking.getUserId())
+                .putInt(booking.getEventId()).putInt(booking.getSeatId());
+        putString(body, booking.getSeatNumber());
+        body.putLong(booking.getBookingTime());
+        body.put((byte) booking.getBookingStatus().ordinal());
+        body.putLong(holdExpiresAt);
+    }
+
+    static void encodePayment(ByteBuffer body, Payment payment) {
+        body.putInt(payment.getPaymentId()).putInt(payment.getBookingId());
+        body.putLong(payment.getAmountMinor()).putLong(payment.getPaymentTime());
+        body.put((byte) payment.getPaymentStatus().ordinal());
+    }
+
+    static void putString(ByteBuffer body, String value) {
+        if (value == null) {
+            body.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("String too long for the journal: " + bytes.length + " bytes");
+        }
+        body.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer body) {
+        int length = body.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void decode(ByteBuffer body, Listener listener) {
+        byte type = body.get();
+        switch (type) {
+            case USER -> listener.onUser(body.getInt(), getString(body), getString(body));
+            case EVENT -> listener.onEvent(body.getInt(), getString(body), getString(body), getString(body));
+            case SEAT -> listener.onSeat(body.getInt(), body.getInt(), getString(body), body.getLong());
+            case SEAT_REMOVED -> listener.onSeatRemoved(body.getInt(), body.getInt());
+            case BOOKING -> listener.onBooking(body.getInt(), body.getInt(), body.getInt(), body.getInt(),
+                    getString(body), body.getLong(), STATUSES[body.get()], body.getLong());
+            case CONFIRMED -> listener.onConfirmed(body.getInt());
+            case EXPIRED -> listener.onExpired(body.getInt());
+            case PAYMENT -> listener.onPayment(body.getInt(), body.getInt(), body.getLong(),
+                    body.getLong(), PAYMENT_STATUSES[body.get()]);
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+
+    private ByteBuffer begin(byte type) {
+        scratch.clear();
+        return scratch.put(type);
+    }
+
+    // Frames the record in scratch and copies it into the mapping; caller holds appendLock.
+    private long append() {
+        scratch.flip();
+        int length = scratch.remaining();
+        if (mapped.remaining() < HEADER_SIZE + length) {
+            try {
+                mapped.force();
+                map(segment + 1);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not roll the journal", e);
+            }
+        }
+        crc.reset();
+        crc.update(scratch.duplicate());
+        int offset = mapped.position();
+        // body and checksum go in before the length, so a reader never sees a length without its record
+        mapped.position(offset + HEADER_SIZE);
+        mapped.put(scratch);
+        mapped.putInt(offset + 4, (int) crc.getValue());
+        mapped.putInt(offset, length);
+        writtenPosition = segment * segmentSize + mapped.position();
+        return writtenPosition;
+    }
+
+    private void map(long newSegment) throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        channel = FileChannel.open(segmentPath(newSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment = newSegment;
+    }
+
+    private void wipe(int fromOffset) {
+        for (int i = fromOffset; i < segmentSize; i++) {
+            mapped.put(i, (byte) 0);
+        }
+        mapped.force();
+    }
+
+    private Path segmentPath(long number) {
+        return dir.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private List<Long> segmentsFrom(long fromSegment) throws IOException {
+        List<Long> res = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long number = Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                        name.length() - SEGMENT_SUFFIX.length()));
+                if (number >= fromSegment) {
+                    res.add(number);
+                }
+            }
+        }
+        Collections.sort(res);
+        return res;
+    }
+}
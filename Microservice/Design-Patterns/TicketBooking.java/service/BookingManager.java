@@ -1,38 +1,152 @@
 import java.util.Map;
-import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 
 
+/*
+ * Thread-safe booking engine. There is no global lock: every seat owns its own
+ * state and is claimed with a single CAS, so threads only contend when they
+ * race for the very same seat.
+ *
+ * Created with recover(dir) the engine is durable: every change is applied in
+ * memory first and then appended to a BookingJournal, and a call returns only
+ * once its records are fsynced (group commit). Periodic snapshots keep the
+ * journal short, so a restart loads the snapshot and replays only the tail.
+ *
+ * Hot events can be switched to shard mode, where a single EventShard thread
+ * owns every change to the event and callers just enqueue commands.
+ */
 public class BookingManager {
 
-    private final Map<Integer,User> users = new HashMap<>();
-    private final Map<Integer,Event> events = new HashMap<>();
-    private final Map<Integer,Booking> bookings = new HashMap<>();
-    private final Map<Integer,Payment> payments = new HashMap<>();
+    private final Map<Integer,User> users = new ConcurrentHashMap<>();
+    private final Map<Integer,Event> events = new ConcurrentHashMap<>();
+    private final Map<Integer,Booking> bookings = new ConcurrentHashMap<>();
+    private final Map<Integer,Payment> payments = new ConcurrentHashMap<>();
+    // secondary indexes, maintained on the write path so history lookups never scan all bookings
+    private final Map<Integer,Queue<Booking>> bookingsByUser = new ConcurrentHashMap<>();
+    private final Map<Integer,Queue<Booking>> bookingsByEvent = new ConcurrentHashMap<>();
 
-    private int bookingIdGenerator = 100;
-    private int paymentIdGenerator = 1000;
+    private final AtomicInteger bookingIdGenerator = new AtomicInteger(100);
+    private final AtomicInteger paymentIdGenerator = new AtomicInteger(1000);
 
+    private final long holdTtlMillis;
+    private final HoldExpiryWheel holdWheel = new HoldExpiryWheel(100, 512, this::expireHold);
+
+    private static final int JOURNAL_SEGMENT_SIZE = 64 << 20;
+    private Path journalDir;
+    private volatile BookingJournal journal; // null when the engine runs purely in memory
+    private ScheduledExecutorService snapshotter;
+
+    private static final int SHARD_CAPACITY = 1 << 14;
+    private static final int SHARD_BATCH_SIZE = 256;
+    private static final long EXPIRY_RETRY_MILLIS = 100;
+    private final Map<Integer,EventShard> shards = new ConcurrentHashMap<>();
+
+    public BookingManager() {
+        this(TimeUnit.MINUTES.toMillis(10));
+    }
+
+    public BookingManager(long holdTtlMillis) {
+        this.holdTtlMillis = holdTtlMillis;
+    }
+
+    public static BookingManager recover(Path journalDir) throws IOException {
+        return recover(journalDir, TimeUnit.MINUTES.toMillis(10), TimeUnit.MINUTES.toMillis(1));
+    }
+
+    /*
+     * Rebuilds the engine from the snapshot and journal in journalDir (both may
+     * be missing on first start) and keeps journaling into it from then on.
+     */
+    public static BookingManager recover(Path journalDir, long holdTtlMillis, long snapshotIntervalMillis)
+            throws IOException {
+        BookingManager manager = new BookingManager(holdTtlMillis);
+        Replayer replayer = manager.new Replayer();
+        long fromSegment = BookingSnapshot.load(journalDir, replayer);
+        manager.journalDir = journalDir;
+        manager.journal = BookingJournal.open(journalDir, JOURNAL_SEGMENT_SIZE, fromSegment, replayer);
+        replayer.scheduleHolds();
+        if (snapshotIntervalMillis > 0) {
+            manager.snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "booking-snapshotter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            manager.snapshotter.scheduleWithFixedDelay(() -> {
+                try {
+                    manager.snapshot();
+                } catch (IOException e) {
+                    System.err.println("Booking snapshot failed: " + e);
+                }
+            }, snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        return manager;
+    }
 
     public void addUser(User user){
         users.put(user.getUserId(), user);
+        BookingJournal current = journal;
+        if (current != null) {
+            commit(current.logUser(user.getUserId(), user.getName(), user.getEmail()));
+        }
     }
 
     public void addEvent(Event event){
         events.put(event.getEventId(), event);
+        BookingJournal current = journal;
+        if (current != null) {
+            commit(current.logEvent(event.getEventId(), event.getName(), event.getDate(), event.getLocation()));
+        }
     }
     public void addSeatToEvent(int eventId, Seat seat){
         Event event = events.get(eventId);
         if(event != null){
             event.addSeat(seat);
+            BookingJournal current = journal;
+            if (current != null) {
+                SeatStore seats = event.getSeatStore();
+                int slot = seats.slotOf(seat.getSeatId());
+                commit(current.logSeat(eventId, seat.getSeatId(), seat.getSeatNumber(), seats.priceMinorAt(slot)));
+            }
+        }
+    }
+
+    /*
+     * Takes a seat off sale for good, booked or not. Prefer this to
+     * Event.removeSeat, which a journaled engine would forget on restart.
+     */
+    public boolean removeSeatFromEvent(int eventId, int seatId) {
+        Event event = events.get(eventId);
+        if (event == null || !event.getSeatStore().remove(seatId)) {
+            return false;
+        }
+        BookingJournal current = journal;
+        if (current != null) {
+            commit(current.logSeatRemoved(eventId, seatId));
         }
+        return true;
     }
 
     public Booking createBooking(int userId, int eventId, int seatId) {
+        EventShard shard = shardFor(eventId);
+        if (shard != null) {
+            return runOnShard(shard, () -> createBooking(userId, eventId, seatId));
+        }
         User user = users.get(userId);
         Event event = events.get(eventId);
 
@@ -40,27 +154,281 @@ public class BookingManager {
             throw new IllegalArgumentException("Invalid user/event");
         }
 
-        for (Seat currentSeat : event.getSeats()) {
-            if (currentSeat.getSeatId() == seatId && !currentSeat.isBooked()) {
-                currentSeat.setBooked(true);
-                Booking booking = new Booking(++bookingIdGenerator, userId, eventId, seatId,
-                        currentSeat.getSeatNumber(), new Date().toString(), "booked");
-                bookings.put(booking.getBookingId(), booking);
-                return booking;
+        SeatStore seats = event.getSeatStore();
+        int slot = seats.slotOf(seatId);
+        // the CAS is the only thing deciding the winner, losers get null
+        if (slot < 0 || !seats.tryBook(slot)) {
+            return null;
+        }
+        Booking booking = new Booking(bookingIdGenerator.incrementAndGet(), userId, eventId, seatId,
+                seats.seatNumberAt(slot), System.currentTimeMillis(), BookingStatus.BOOKED);
+        commit(addBooking(booking));
+        return booking;
+    }
+
+    /*
+     * Books every seat in seatIds for one user, or none of them. Returns one
+     * Booking per seat, or an empty list if any seat is unknown or already taken.
+     */
+    public List<Booking> createBookings(int userId, int eventId, Collection<Integer> seatIds) {
+        EventShard shard = shardFor(eventId);
+        if (shard != null) {
+            return runOnShard(shard, () -> createBookings(userId, eventId, seatIds));
+        }
+        User user = users.get(userId);
+        Event event = events.get(eventId);
+
+        if (user == null || event == null) {
+            throw new IllegalArgumentException("Invalid user/event");
+        }
+
+        SeatStore seats = event.getSeatStore();
+        int[] slots = new int[seatIds.size()];
+        int count = 0;
+        for (Integer seatId : seatIds) {
+            int slot = seats.slotOf(seatId);
+            if (slot < 0) {
+                return Collections.emptyList();
             }
+            slots[count++] = slot;
+        }
+        Arrays.sort(slots, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || slots[distinct - 1] != slots[i]) {
+                slots[distinct++] = slots[i];
+            }
+        }
+        if (distinct == 0 || !seats.tryBookAll(slots, distinct)) {
+            return Collections.emptyList();
+        }
+        return recordBookings(userId, eventId, seats, slots, distinct);
+    }
+
+    /*
+     * Books the best run of count adjacent seats (front-most row, leftmost
+     * first). Returns an empty list if no row has that many free seats together.
+     */
+    public List<Booking> bookBestAvailable(int userId, int eventId, int count) {
+        EventShard shard = shardFor(eventId);
+        if (shard != null) {
+            return runOnShard(shard, () -> bookBestAvailable(userId, eventId, count));
+        }
+        User user = users.get(userId);
+        Event event = events.get(eventId);
+
+        if (user == null || event == null) {
+            throw new IllegalArgumentException("Invalid user/event");
+        }
+
+        SeatStore seats = event.getSeatStore();
+        while (true) {
+            int[] slots = seats.findContiguousFree(count);
+            if (slots == null) {
+                return Collections.emptyList();
+            }
+            // someone may grab part of the run between the lookup and the claim; just look again
+            if (seats.tryBookAll(slots, count)) {
+                return recordBookings(userId, eventId, seats, slots, count);
+            }
+        }
+    }
+
+    private List<Booking> recordBookings(int userId, int eventId, SeatStore seats, int[] slots, int count) {
+        long bookingTime = System.currentTimeMillis();
+        List<Booking> res = new ArrayList<>(count);
+        long position = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = slots[i];
+            Booking booking = new Booking(bookingIdGenerator.incrementAndGet(), userId, eventId, seats.seatIdAt(slot),
+                    seats.seatNumberAt(slot), bookingTime, BookingStatus.BOOKED);
+            position = addBooking(booking);
+            res.add(booking);
+        }
+        commit(position);
+        return res;
+    }
+
+    /*
+     * Holds a seat for checkout. The seat is unavailable to everyone else until
+     * processPayment confirms the hold or the TTL runs out, whichever comes first.
+     */
+    public Booking holdSeat(int userId, int eventId, int seatId) {
+        EventShard shard = shardFor(eventId);
+        if (shard != null) {
+            return runOnShard(shard, () -> holdSeat(userId, eventId, seatId));
+        }
+        User user = users.get(userId);
+        Event event = events.get(eventId);
+
+        if (user == null || event == null) {
+            throw new IllegalArgumentException("Invalid user/event");
+        }
+
+        SeatStore seats = event.getSeatStore();
+        int slot = seats.slotOf(seatId);
+        if (slot < 0) {
+            return null;
+        }
+        int bookingId = bookingIdGenerator.incrementAndGet();
+        if (!seats.tryHold(slot, bookingId)) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Booking booking = new Booking(bookingId, userId, eventId, seatId,
+                seats.seatNumberAt(slot), now, BookingStatus.HELD, now + holdTtlMillis);
+        long position = addBooking(booking);
+        holdWheel.schedule(bookingId, holdTtlMillis);
+        commit(position);
+        return booking;
+    }
+
+    // Called by the hold wheel; a confirmed hold loses the CAS and is left alone.
+    private void expireHold(int bookingId) {
+        Booking booking = bookings.get(bookingId);
+        if (booking == null) {
+            return;
+        }
+        EventShard shard = shardFor(booking.getEventId());
+        if (shard != null) {
+            // the shard owns every change to its event, expiries too; the wheel thread doesn't wait for it
+            CompletableFuture<Object> expiry = shard.submit(() -> {
+                expireHold(bookingId);
+                return null;
+            });
+            if (!expiry.isCompletedExceptionally()) {
+                expiry.whenComplete((ignored, e) -> {
+                    if (e != null) {
+                        System.err.println("Expiring hold " + bookingId + " failed: " + e);
+                    }
+                });
+                return;
+            }
+            if (!(expiry.exceptionNow() instanceof EventShard.StoppedException)) {
+                holdWheel.schedule(bookingId, EXPIRY_RETRY_MILLIS); // ring full, try again shortly
+                return;
+            }
+        }
+        if (!booking.compareAndSetStatus(BookingStatus.HELD, BookingStatus.EXPIRED)) {
+            return;
+        }
+        SeatStore seats = events.get(booking.getEventId()).getSeatStore();
+        int slot = seats.slotOf(booking.getSeatId());
+        if (slot >= 0) {
+            // journaled before the seat is freed, so whoever books it next is always journaled after this
+            BookingJournal current = journal;
+            if (current != null) {
+                current.logExpired(bookingId); // nobody waits on this; a lost record just re-expires on recovery
+            }
+            seats.releaseHold(slot, bookingId);
         }
-        return null;
     }
 
     public Payment processPayment(int bookingId, BigDecimal amount){
+        return processPayment(bookingId, Money.toMinor(amount));
+    }
+
+    // Allocation-light variant for callers that already hold the amount in minor units (see Money).
+    public Payment processPayment(int bookingId, long amountMinor){
         Booking booking = bookings.get(bookingId);
         if(booking == null){
             throw new IllegalArgumentException("Invalid booking");
         }
-        Payment payment = new Payment(++paymentIdGenerator, bookingId, amount, new Date().toString(), "paid");
+        EventShard shard = shardFor(booking.getEventId());
+        if (shard != null) {
+            return runOnShard(shard, () -> processPayment(bookingId, amountMinor));
+        }
+        BookingJournal current = journal;
+        if (booking.getHoldExpiresAt() != 0) {
+            // a hold is paid once: the booking's CAS picks one winner among concurrent payers and the expiry
+            if (!booking.compareAndSetStatus(BookingStatus.HELD, BookingStatus.BOOKED)) {
+                throw new IllegalStateException(booking.getBookingStatus() == BookingStatus.BOOKED
+                        ? "Booking " + bookingId + " is already paid"
+                        : "Hold expired for booking " + bookingId);
+            }
+            SeatStore seats = events.get(booking.getEventId()).getSeatStore();
+            int slot = seats.slotOf(booking.getSeatId());
+            if (slot < 0 || !seats.confirmHold(slot, bookingId)) {
+                booking.setStatus(BookingStatus.EXPIRED); // the seat was removed under the hold
+                throw new IllegalStateException("Hold expired for booking " + bookingId);
+            }
+            if (current != null) {
+                current.logConfirmed(bookingId);
+            }
+        }
+        Payment payment = new Payment(paymentIdGenerator.incrementAndGet(), bookingId, amountMinor,
+                System.currentTimeMillis(), PaymentStatus.PAID);
         payments.put(payment.getPaymentId(), payment);
+        if (current != null) {
+            commit(current.logPayment(payment));
+        }
         return payment;
     }
+    /*
+     * Async variants: on a sharded event the future completes once the shard has
+     * run the batch holding this request and made it durable; otherwise the call
+     * runs inline and the future is already done.
+     */
+    public CompletableFuture<Booking> createBookingAsync(int userId, int eventId, int seatId) {
+        return submitToShard(shardFor(eventId), () -> createBooking(userId, eventId, seatId));
+    }
+
+    public CompletableFuture<Payment> processPaymentAsync(int bookingId, BigDecimal amount) {
+        long amountMinor = Money.toMinor(amount); // a bad amount throws here, not inside the future
+        Booking booking = bookings.get(bookingId);
+        EventShard shard = booking != null ? shardFor(booking.getEventId()) : null;
+        return submitToShard(shard, () -> processPayment(bookingId, amountMinor));
+    }
+
+    // A shard stopped under the caller (shard mode switched off) rejects at once; run the work here instead.
+    private <T> CompletableFuture<T> submitToShard(EventShard shard, Supplier<T> work) {
+        if (shard != null) {
+            CompletableFuture<T> future = shard.submit(work);
+            if (!future.isCompletedExceptionally() || !(future.exceptionNow() instanceof EventShard.StoppedException)) {
+                return future;
+            }
+        }
+        try {
+            return CompletableFuture.completedFuture(work.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> T runOnShard(EventShard shard, Supplier<T> work) {
+        try {
+            return shard.execute(work);
+        } catch (EventShard.StoppedException e) {
+            return work.get(); // shardFor skips the stopped shard now, so this takes the CAS path
+        }
+    }
+
+    /*
+     * Switches an event to single-writer mode (or back). Meant for onsales where
+     * one event takes most of the traffic and even per-seat CAS starts to contend.
+     */
+    public void setShardMode(int eventId, boolean enabled) {
+        if (!events.containsKey(eventId)) {
+            throw new IllegalArgumentException("Invalid event");
+        }
+        if (enabled) {
+            shards.computeIfAbsent(eventId, id -> new EventShard(id, SHARD_CAPACITY, SHARD_BATCH_SIZE, this::awaitDurable));
+        } else {
+            EventShard shard = shards.remove(eventId);
+            if (shard != null) {
+                shard.stop();
+            }
+        }
+    }
+
+    public boolean isShardMode(int eventId) { return shards.containsKey(eventId); }
+
+    // The shard that must run a change to this event, or null to run it on the calling thread.
+    private EventShard shardFor(int eventId) {
+        EventShard shard = shards.get(eventId);
+        return shard == null || shard.isShardThread() || shard.isStopped() ? null : shard;
+    }
+
     public List<Event> getAllEvents() { return new ArrayList<>(events.values()); }
 
     public List<Seat> getSeatsForEvent(int eventId) {
@@ -68,13 +436,198 @@ public class BookingManager {
         return event != null ? event.getSeats() : Collections.emptyList();
     }
 
+    // Best run of count adjacent free seats, without booking them.
+    public List<Seat> findBestAvailable(int eventId, int count) {
+        Event event = events.get(eventId);
+        return event != null ? event.findBestAvailable(count) : Collections.emptyList();
+    }
+
     public List<Booking> getBookingsForUser(int userId) {
-        List<Booking> res = new ArrayList<>();
-        for (Booking b : bookings.values()) 
-            if (b.getUserId() == userId) res.add(b);
-        return res;
+        Queue<Booking> res = bookingsByUser.get(userId);
+        return res != null ? new ArrayList<>(res) : new ArrayList<>();
     }
-  
 
-} 
+    public List<Booking> getBookingsForEvent(int eventId) {
+        Queue<Booking> res = bookingsByEvent.get(eventId);
+        return res != null ? new ArrayList<>(res) : new ArrayList<>();
+    }
+
+    // Returns the journal position of the booking record, or 0 when not journaling.
+    private long addBooking(Booking booking) {
+        bookings.put(booking.getBookingId(), booking);
+        bookingsByUser.computeIfAbsent(booking.getUserId(), id -> new ConcurrentLinkedQueue<>()).add(booking);
+        bookingsByEvent.computeIfAbsent(booking.getEventId(), id -> new ConcurrentLinkedQueue<>()).add(booking);
+        BookingJournal current = journal;
+        return current != null ? current.logBooking(booking, booking.getHoldExpiresAt()) : 0;
+    }
+
+    private void commit(long journalPosition) {
+        if (journalPosition <= 0) {
+            return;
+        }
+        if (Thread.currentThread() instanceof EventShard.Worker worker) {
+            // the shard commits once for its whole batch before completing any future
+            worker.pendingCommit = Math.max(worker.pendingCommit, journalPosition);
+            return;
+        }
+        awaitDurable(journalPosition);
+    }
+
+    private void awaitDurable(long journalPosition) {
+        BookingJournal current = journal;
+        if (current != null) {
+            current.awaitDurable(journalPosition);
+        }
+    }
+
+    public int getBookingCount() { return bookings.size(); }
+
+    /*
+     * Writes a snapshot of the whole state and drops the journal segments it
+     * covers. Runs alongside live traffic: the journal is rolled first, so any
+     * change the snapshot misses is in the new segment and replays on top of it.
+     */
+    public synchronized void snapshot() throws IOException {
+        BookingJournal current = journal;
+        if (current == null) {
+            throw new IllegalStateException("Booking engine is not journaled");
+        }
+        long segment = current.roll();
+        try (BookingSnapshot snapshot = BookingSnapshot.begin(journalDir, segment)) {
+            for (User user : users.values()) {
+                snapshot.user(user);
+            }
+            for (Event event : events.values()) {
+                snapshot.event(event);
+            }
+            for (Booking booking : bookings.values()) {
+                snapshot.booking(booking, booking.getHoldExpiresAt());
+            }
+            for (Payment payment : payments.values()) {
+                snapshot.payment(payment);
+            }
+            snapshot.commit();
+        }
+        current.deleteSegmentsBefore(segment);
+    }
+
+    public void shutdown() {
+        holdWheel.stop();
+        for (EventShard shard : shards.values()) {
+            shard.stop();
+        }
+        if (snapshotter != null) {
+            snapshotter.shutdownNow();
+        }
+        BookingJournal current = journal;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                System.err.println("Closing the booking journal failed: " + e);
+            }
+        }
+    }
+
+    /*
+     * Applies snapshot and journal records. Every record may already be part of
+     * the snapshot (it was taken while traffic kept flowing), so each one is
+     * applied only if the state it describes is not there yet.
+     */
+    private final class Replayer implements BookingJournal.Listener {
+
+        // held when replayed; a later record may still confirm or expire them
+        private final List<Booking> holds = new ArrayList<>();
+
+        /*
+         * Hands the holds still HELD after the whole replay to the wheel. Doing it
+         * during replay could expire a hold whose CONFIRMED record comes later.
+         */
+        void scheduleHolds() {
+            long now = System.currentTimeMillis();
+            for (Booking booking : holds) {
+                if (booking.getBookingStatus() == BookingStatus.HELD) {
+                    holdWheel.schedule(booking.getBookingId(), Math.max(0, booking.getHoldExpiresAt() - now));
+                }
+            }
+            holds.clear();
+        }
+
+        @Override
+        public void onUser(int userId, String name, String email) {
+            users.putIfAbsent(userId, new User(userId, name, email));
+        }
+
+        @Override
+        public void onEvent(int eventId, String name, String date, String location) {
+            events.putIfAbsent(eventId, new Event(eventId, name, date, location));
+        }
+
+        @Override
+        public void onSeat(int eventId, int seatId, String seatNumber, long priceMinor) {
+            Event event = events.get(eventId);
+            if (event != null && event.getSeatStore().slotOf(seatId) < 0) {
+                event.addSeat(new Seat(seatId, eventId, seatNumber, Money.fromMinor(priceMinor)));
+            }
+        }
+
+        @Override
+        public void onSeatRemoved(int eventId, int seatId) {
+            Event event = events.get(eventId);
+            if (event != null) {
+                event.getSeatStore().remove(seatId);
+            }
+        }
+
+        @Override
+        public void onBooking(int bookingId, int userId, int eventId, int seatId, String seatNumber,
+                long bookingTime, BookingStatus status, long holdExpiresAt) {
+            bookingIdGenerator.accumulateAndGet(bookingId, Math::max);
+            Event event = events.get(eventId);
+            if (bookings.containsKey(bookingId) || event == null) {
+                return;
+            }
+            SeatStore seats = event.getSeatStore();
+            int slot = seats.slotOf(seatId);
+            Booking booking = new Booking(bookingId, userId, eventId, seatId, seatNumber, bookingTime, status,
+                    holdExpiresAt);
+            addBooking(booking);
+            if (slot >= 0 && status == BookingStatus.BOOKED) {
+                // a booked seat stays booked, so this wins over a hold that expired after the snapshot read it
+                seats.forceBook(slot);
+            } else if (slot >= 0 && status == BookingStatus.HELD) {
+                seats.tryHold(slot, bookingId);
+                holds.add(booking);
+            }
+        }
+
+        @Override
+        public void onConfirmed(int bookingId) {
+            Booking booking = bookings.get(bookingId);
+            if (booking != null && booking.getBookingStatus() == BookingStatus.HELD) {
+                SeatStore seats = events.get(booking.getEventId()).getSeatStore();
+                seats.confirmHold(seats.slotOf(booking.getSeatId()), bookingId);
+                booking.setStatus(BookingStatus.BOOKED);
+            }
+        }
+
+        @Override
+        public void onExpired(int bookingId) {
+            Booking booking = bookings.get(bookingId);
+            if (booking != null && booking.getBookingStatus() == BookingStatus.HELD) {
+                SeatStore seats = events.get(booking.getEventId()).getSeatStore();
+                seats.releaseHold(seats.slotOf(booking.getSeatId()), bookingId);
+                booking.setStatus(BookingStatus.EXPIRED);
+            }
+        }
+
+        @Override
+        public void onPayment(int paymentId, int bookingId, long amountMinor, long paymentTime, PaymentStatus paymentStatus) {
+            paymentIdGenerator.accumulateAndGet(paymentId, Math::max);
+            payments.putIfAbsent(paymentId,
+                    new Payment(paymentId, bookingId, amountMinor, paymentTime, paymentStatus));
+        }
+    }
+  
 
+}
@@ -0,0 +1,148 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/*
+ * Compact snapshot of the whole booking state, written in the journal's record
+ * format so recovery is "load snapshot, replay the journal tail".
+ *
+ * The file starts with the journal segment it covers: every record in earlier
+ * segments is already reflected in the snapshot. It is written to a temp file
+ * and atomically renamed, so a crash mid-snapshot leaves the previous one intact.
+ */
+public class BookingSnapshot implements AutoCloseable {
+
+    private static final int MAGIC = 0x54424B53; // "TBKS"
+    private static final String FILE_NAME = "snapshot.bin";
+    private static final String TEMP_NAME = "snapshot.tmp";
+
+    private final Path dir;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+    private final ByteBuffer body = ByteBuffer.allocate(BookingJournal.MAX_BODY_SIZE);
+    private final CRC32C crc = new CRC32C();
+
+    private BookingSnapshot(Path dir, long journalSegment) throws IOException {
+        this.dir = dir;
+        this.channel = FileChannel.open(dir.resolve(TEMP_NAME), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(MAGIC).putLong(journalSegment);
+    }
+
+    static BookingSnapshot begin(Path dir, long journalSegment) throws IOException {
+        return new BookingSnapshot(dir, journalSegment);
+    }
+
+    /*
+     * Loads the latest snapshot into the listener and returns the journal segment
+     * to replay from (0 when there is no snapshot yet).
+     */
+    static long load(Path dir, BookingJournal.Listener listener) throws IOException {
+        Path file = dir.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            if (mapped.getInt() != MAGIC) {
+                throw new IOException("Not a booking snapshot: " + file);
+            }
+            long journalSegment = mapped.getLong();
+            if (BookingJournal.replay(mapped.slice(), listener) < 0) {
+                throw new IOException("Corrupt booking snapshot: " + file);
+            }
+            return journalSegment;
+        }
+    }
+
+    public void user(User user) throws IOException {
+        body.clear();
+        body.put(BookingJournal.USER).putInt(user.getUserId());
+        BookingJournal.putString(body, user.getName());
+        BookingJournal.putString(body, user.getEmail());
+        write();
+    }
+
+    public void event(Event event) throws IOException {
+        body.clear();
+        body.put(BookingJournal.EVENT).putInt(event.getEventId());
+        BookingJournal.putString(body, event.getName());
+        BookingJournal.putString(body, event.getDate());
+        BookingJournal.putString(body, event.getLocation());
+        write();
+        // removed seats too, as the add and remove the journal would hold, so none comes back on sale
+        SeatStore seats = event.getSeatStore();
+        int size = seats.size();
+        for (int slot = 0; slot < size; slot++) {
+            body.clear();
+            body.put(BookingJournal.SEAT).putInt(event.getEventId()).putInt(seats.seatIdAt(slot));
+            BookingJournal.putString(body, seats.seatNumberAt(slot));
+            body.putLong(seats.priceMinorAt(slot));
+            write();
+            if (seats.stateAt(slot) == SeatStore.REMOVED) {
+                body.clear();
+                body.put(BookingJournal.SEAT_REMOVED).putInt(event.getEventId()).putInt(seats.seatIdAt(slot));
+                write();
+            }
+        }
+    }
+
+    public void booking(Booking booking, long holdExpiresAt) throws IOException {
+        body.clear();
+        body.put(BookingJournal.BOOKING);
+        BookingJournal.encodeBooking(body, booking, holdExpiresAt);
+        write();
+    }
+
+    public void payment(Payment payment) throws IOException {
+        body.clear();
+        body.put(BookingJournal.PAYMENT);
+        BookingJournal.encodePayment(body, payment);
+        write();
+    }
+
+    // Makes the snapshot durable and replaces the previous one.
+    public void commit() throws IOException {
+        if (buffer.remaining() < 4) {
+            flush();
+        }
+        buffer.putInt(0);
+        flush();
+        channel.force(true);
+        channel.close();
+        Files.move(dir.resolve(TEMP_NAME), dir.resolve(FILE_NAME),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.close();
+            Files.deleteIfExists(dir.resolve(TEMP_NAME));
+        }
+    }
+
+    private void write() throws IOException {
+        body.flip();
+        if (buffer.remaining() < BookingJournal.HEADER_SIZE + body.remaining()) {
+            flush();
+        }
+        crc.reset();
+        crc.update(body.duplicate());
+        buffer.putInt(body.remaining()).putInt((int) crc.getValue()).put(body);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
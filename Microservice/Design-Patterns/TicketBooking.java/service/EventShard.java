@@ -0,0 +1,205 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/*
+ * Single-writer owner of one hot event.
+ *
+ * Every change to the event is a command pushed into a bounded MPSC ring and
+ * executed by the shard's own thread, so seat updates never contend. The
+ * thread drains up to batchSize commands per cycle, makes the whole batch
+ * durable with one journal commit, and only then completes the futures.
+ * A full ring rejects new commands rather than letting the queue (and the
+ * latency) grow without bound.
+ *
+ * A stopped shard rejects new commands with StoppedException, so the caller
+ * can run them itself. Commands that got into the ring before the stop still
+ * run: the worker drains the ring before it exits, and a command offered after
+ * that last drain is run by its own submitter.
+ */
+public class EventShard {
+
+    public static final class StoppedException extends RejectedExecutionException {
+        private static final long serialVersionUID = 1L;
+
+        StoppedException() {
+            super("Event shard is stopped");
+        }
+    }
+
+    private static final class Command<T> {
+        final Supplier<T> work;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        T result;
+        RuntimeException failure;
+
+        Command(Supplier<T> work) {
+            this.work = work;
+        }
+
+        void run() {
+            try {
+                result = work.get();
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+
+        void complete(RuntimeException commitFailure) {
+            if (commitFailure != null) {
+                future.completeExceptionally(commitFailure);
+            } else if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+
+    // The shard thread; BookingManager parks journal commits here until the batch is done.
+    static final class Worker extends Thread {
+        long pendingCommit;
+
+        Worker(Runnable body, String name) {
+            super(body, name);
+        }
+    }
+
+    private final MpscRingBuffer<Command<?>> ring;
+    private final int batchSize;
+    private final LongConsumer committer;
+    private final Worker worker;
+    private volatile boolean sleeping;
+    private volatile boolean stopped;
+    private boolean terminated; // guarded by this; once set, only submitters poll the ring
+
+    public EventShard(int eventId, int capacity, int batchSize, LongConsumer committer) {
+        this.ring = new MpscRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.committer = committer;
+        this.worker = new Worker(this::run, "event-" + eventId + "-shard");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        Command<T> command = new Command<>(work);
+        if (stopped) {
+            command.future.completeExceptionally(new StoppedException());
+            return command.future;
+        }
+        if (!ring.offer(command)) {
+            command.future.completeExceptionally(new RejectedExecutionException("Event shard is full"));
+            return command.future;
+        }
+        if (stopped) {
+            // stopped while we were offering: the worker may already have drained for the last time
+            drainIfTerminated();
+        } else if (sleeping) {
+            LockSupport.unpark(worker);
+        }
+        return command.future;
+    }
+
+    // Runs work on the shard and waits for it, rethrowing what it threw.
+    public <T> T execute(Supplier<T> work) {
+        try {
+            return submit(work).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public boolean isShardThread() {
+        return Thread.currentThread() == worker;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    public void stop() {
+        stopped = true;
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        Command<?>[] batch = new Command<?>[batchSize];
+        while (true) {
+            int count = 0;
+            Command<?> command;
+            while (count < batchSize && (command = ring.poll()) != null) {
+                batch[count++] = command;
+            }
+            if (count == 0) {
+                if (stopped) {
+                    terminate();
+                    return;
+                }
+                sleeping = true;
+                if (ring.isEmpty()) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+                sleeping = false;
+                continue;
+            }
+            runBatch(batch, count);
+        }
+    }
+
+    // The worker's last drain; after it only submitters (one at a time) poll the ring.
+    private synchronized void terminate() {
+        drain();
+        terminated = true;
+    }
+
+    private synchronized void drainIfTerminated() {
+        if (terminated) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        Command<?>[] batch = new Command<?>[batchSize];
+        while (true) {
+            int count = 0;
+            Command<?> command;
+            while (count < batchSize && (command = ring.poll()) != null) {
+                batch[count++] = command;
+            }
+            if (count == 0) {
+                return;
+            }
+            runBatch(batch, count);
+        }
+    }
+
+    // Runs the commands, commits what they journaled once and only then completes them.
+    private void runBatch(Command<?>[] batch, int count) {
+        for (int i = 0; i < count; i++) {
+            batch[i].run();
+        }
+        // off the worker (after termination) nothing is pending: commands commit on the caller's path
+        long position = worker.pendingCommit;
+        worker.pendingCommit = 0;
+        RuntimeException commitFailure = null;
+        if (position > 0) {
+            try {
+                committer.accept(position);
+            } catch (RuntimeException e) {
+                commitFailure = e;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            batch[i].complete(commitFailure);
+            batch[i] = null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+/*
+ * Hashed timing wheel that expires seat holds.
+ *
+ * A hold is one small entry dropped into a lock-free queue; the wheel thread
+ * moves new entries into their bucket and, on every tick, walks only the bucket
+ * under the hand. Millions of pending holds therefore cost O(1) to add and
+ * O(bucket) per tick, and there is no scheduled task per hold.
+ *
+ * Expiry is reported as the bookingId of the hold; the callback decides (with a
+ * CAS) whether the hold is still pending, so confirmed holds need no cancel.
+ */
+public class HoldExpiryWheel {
+
+    private static final class Entry {
+        final int bookingId;
+        final long deadlineTick;
+        long remainingRounds;
+        Entry next;
+
+        Entry(int bookingId, long deadlineTick) {
+            this.bookingId = bookingId;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final Entry[] buckets; // touched by the wheel thread only
+    private final ConcurrentLinkedQueue<Entry> incoming = new ConcurrentLinkedQueue<>();
+    private final IntConsumer onExpiry;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final long startNanos = System.nanoTime();
+    private volatile boolean stopped;
+    private long currentTick; // next tick the hand will process
+
+    public HoldExpiryWheel(long tickMillis, int wheelSize, IntConsumer onExpiry) {
+        if (tickMillis <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("tickMillis must be > 0 and wheelSize a power of two");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.mask = wheelSize - 1;
+        this.buckets = new Entry[wheelSize];
+        this.onExpiry = onExpiry;
+    }
+
+    public void schedule(int bookingId, long ttlMillis) {
+        long deadline = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        // round up so a hold never expires before its TTL
+        incoming.add(new Entry(bookingId, (deadline + tickNanos - 1) / tickNanos));
+        if (!started.get() && started.compareAndSet(false, true)) {
+            Thread worker = new Thread(this::run, "hold-expiry-wheel");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    private void run() {
+        while (!stopped) {
+            long sleepNanos = (currentTick + 1) * tickNanos - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            tick();
+        }
+    }
+
+    // Advances the hand by one slot; runs on the wheel thread only.
+    void tick() {
+        transferIncoming();
+        int index = (int) (currentTick & mask);
+        Entry previous = null;
+        Entry entry = buckets[index];
+        while (entry != null) {
+            Entry next = entry.next;
+            if (entry.remainingRounds <= 0) {
+                if (previous == null) {
+                    buckets[index] = next;
+                } else {
+                    previous.next = next;
+                }
+                try {
+                    onExpiry.accept(entry.bookingId);
+                } catch (RuntimeException e) {
+                    // one bad hold must not stop the wheel, or no later hold would ever expire
+                    System.err.println("Expiring hold " + entry.bookingId + " failed: " + e);
+                }
+            } else {
+                entry.remainingRounds--;
+                previous = entry;
+            }
+            entry = next;
+        }
+        currentTick++;
+    }
+
+    private void transferIncoming() {
+        Entry entry;
+        while ((entry = incoming.poll()) != null) {
+            // anything already due goes into the slot the hand is about to visit
+            long tick = Math.max(entry.deadlineTick, currentTick);
+            entry.remainingRounds = (tick - currentTick) / buckets.length;
+            int index = (int) (tick & mask);
+            entry.next = buckets[index];
+            buckets[index] = entry;
+        }
+    }
+}
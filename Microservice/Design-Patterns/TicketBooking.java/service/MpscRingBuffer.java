@@ -0,0 +1,55 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Bounded multi-producer / single-consumer ring buffer.
+ *
+ * Producers claim a sequence with one CAS on the tail and then publish the
+ * element into its slot; the consumer owns the head and frees a slot by nulling
+ * it. A null slot at the head means "not published yet", so the consumer never
+ * sees a half-written entry. offer fails instead of blocking when full.
+ */
+public class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong(); // written by the consumer only
+
+    public MpscRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public boolean offer(E element) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() > mask) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.set((int) (sequence & mask), element);
+        return true;
+    }
+
+    // Consumer thread only.
+    public E poll() {
+        long sequence = head.get();
+        int index = (int) (sequence & mask);
+        E element = slots.get(index);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(index, null);
+        head.lazySet(sequence + 1);
+        return element;
+    }
+
+    public boolean isEmpty() {
+        return slots.get((int) (head.get() & mask)) == null;
+    }
+}
@@ -1,12 +1,33 @@
 package com.microservice.apigateway;
 
+import com.microservice.loadbalancer.InstanceLoadTracker;
+import com.microservice.loadbalancer.PeakEwmaLoadBalancerConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.web.reactive.function.client.WebClient;
 
 @SpringBootApplication
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
 public class ApiGatewayApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(ApiGatewayApplication.class, args);
     }
+
+    // latency and load per instance for PeakEwmaLoadBalancer, tuned under gateway.load-balancer.*
+    @Bean
+    public InstanceLoadTracker instanceLoadTracker(Environment environment) {
+        return new InstanceLoadTracker(environment, "gateway.load-balancer");
+    }
+
+    // for the calls the gateway makes itself, like OrderWithCustomer's fan-out; routes don't use it
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder() {
+        return WebClient.builder();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.microservice.apigateway.filter;
+
+import com.microservice.apigateway.ratelimit.GradientConcurrencyLimit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sheds load with 429 once a route's backend slows down, using a
+ * GradientConcurrencyLimit per route:
+ *
+ * <pre>
+ * filters:
+ *   - name: ConcurrencyLimit
+ *     args:
+ *       initial-limit: 50
+ *       max-limit: 400
+ * </pre>
+ *
+ * The permit is held until the backend's response headers are in: the chain
+ * below this filter completes there, and NettyWriteResponseFilter copies the
+ * body to the client afterwards, so a slow client doesn't count against the
+ * backend. 5xx responses and failed or cancelled requests free their permit
+ * without moving the limit.
+ */
+@Component
+public class ConcurrencyLimitGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ConcurrencyLimitGatewayFilterFactory.Config> {
+
+    private final MeterRegistry meterRegistry;
+    // one per route, kept across route refreshes so what a limit has learned isn't thrown away
+    private final Map<String, GradientConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "";
+        GradientConcurrencyLimit limit = limits.computeIfAbsent(routeId, id -> newLimit(id, config));
+
+        return (exchange, chain) -> {
+            ServerHttpResponse response = exchange.getResponse();
+            if (!limit.tryAcquire()) {
+                meterRegistry.counter("gateway.concurrency.shed", "route", routeId).increment();
+                response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                return response.setComplete();
+            }
+            long start = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                HttpStatusCode status = response.getStatusCode();
+                boolean measured = signal == SignalType.ON_COMPLETE && status != null
+                        && !status.is5xxServerError();
+                limit.release(measured ? System.nanoTime() - start : -1);
+            });
+        };
+    }
+
+    private GradientConcurrencyLimit newLimit(String routeId, Config config) {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(config.getInitialLimit(),
+                config.getMinLimit(), config.getMaxLimit(), config.getRttTolerance());
+        Gauge.builder("gateway.concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+                .tag("route", routeId).register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in-flight", limit, GradientConcurrencyLimit::getInFlight)
+                .tag("route", routeId).register(meterRegistry);
+        return limit;
+    }
+
+    public static class Config implements HasRouteId {
+
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        // how much slower than usual responses may get before the limit shrinks
+        private double rttTolerance = 1.5;
+        private String routeId;
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getRttTolerance() {
+            return rttTolerance;
+        }
+
+        public void setRttTolerance(double rttTolerance) {
+            this.rttTolerance = rttTolerance;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.microservice.apigateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Answers a route itself by fetching /order/{id} from ORDER-SERVICE and
+ * /customer/{customerId} from CUSTOMER-SERVICE and merging them into the same
+ * {"order", "customer", "degraded"} document as /order/withCustomer/{id}.
+ * Requests to this route never make order-service call customer-service;
+ * /order/withCustomer/{id} itself still does:
+ *
+ * <pre>
+ * predicates:
+ *   - Path=/bff/order/{id}
+ * filters:
+ *   - name: OrderWithCustomer
+ *     args:
+ *       timeout: 1s
+ * </pre>
+ *
+ * The customer call needs the order's customerId. When the gateway has already
+ * served this order it remembers the customerId and both calls go out at once;
+ * otherwise they run back to back. The client can't supply the customerId, or it
+ * could make the gateway fetch any customer. A remembered id that turns out wrong
+ * (the order was moved to another customer) costs one more customer call, never a
+ * wrong answer.
+ *
+ * An order-service failure is passed on as its status, 502 or, after the timeout,
+ * 504. A customer-service failure gives the order with "degraded": true, and an
+ * unknown customer "customer": null, as order-service does.
+ */
+@Component
+public class OrderWithCustomerGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<OrderWithCustomerGatewayFilterFactory.Config> {
+
+    private final WebClient orderService;
+    private final WebClient customerService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    // orderId -> customerId of orders already served, so asking again fetches both at once
+    private final Cache<String, String> customerIds;
+
+    public OrderWithCustomerGatewayFilterFactory(WebClient.Builder loadBalancedWebClientBuilder,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${gateway.aggregation.maximum-customer-ids:100000}") long maximumCustomerIds) {
+        super(Config.class);
+        this.orderService = loadBalancedWebClientBuilder.clone().baseUrl("http://ORDER-SERVICE").build();
+        this.customerService = loadBalancedWebClientBuilder.clone().baseUrl("http://CUSTOMER-SERVICE").build();
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.customerIds = Caffeine.newBuilder().maximumSize(maximumCustomerIds).build();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "";
+        return (exchange, chain) -> {
+            String orderId = ServerWebExchangeUtils.getUriTemplateVariables(exchange).get("id");
+            String knownCustomerId = orderId != null ? customerIds.getIfPresent(orderId) : null;
+            Mono<JsonNode> order = orderService.get()
+                    .uri("/order/{id}", orderId)
+                    .retrieve()
+                    .bodyToMono(JsonNode.class)
+                    .timeout(config.getTimeout());
+
+            Mono<ObjectNode> merged;
+            if (knownCustomerId == null) {
+                merged = order.flatMap(o -> {
+                    count(routeId, "serial");
+                    return customer(customerId(o), config.getTimeout()).map(c -> merge(o, c));
+                });
+            } else {
+                String expected = knownCustomerId;
+                merged = Mono.zip(order, customer(expected, config.getTimeout())).flatMap(both -> {
+                    String actual = customerId(both.getT1());
+                    if (expected.equals(actual)) {
+                        count(routeId, "parallel");
+                        return Mono.just(merge(both.getT1(), both.getT2()));
+                    }
+                    count(routeId, "refetched");
+                    return customer(actual, config.getTimeout()).map(c -> merge(both.getT1(), c));
+                });
+            }
+
+            return merged
+                    .doOnNext(document -> {
+                        String customerId = customerId(document.get("order"));
+                        if (orderId != null && customerId != null) {
+                            customerIds.put(orderId, customerId);
+                        }
+                    })
+                    .flatMap(document -> write(exchange, document))
+                    .onErrorResume(e -> fail(exchange.getResponse(), e));
+        };
+    }
+
+    // NullNode for an unknown customer; degraded when customer-service fails or is too slow
+    private Mono<CustomerPart> customer(String customerId, Duration timeout) {
+        if (customerId == null) {
+            return Mono.just(new CustomerPart(NullNode.getInstance(), false));
+        }
+        return customerService.get()
+                .uri("/customer/{id}", customerId)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(customer -> new CustomerPart(customer, false))
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                .defaultIfEmpty(new CustomerPart(NullNode.getInstance(), false))
+                .timeout(timeout)
+                .onErrorResume(e -> Mono.just(new CustomerPart(NullNode.getInstance(), true)));
+    }
+
+    private ObjectNode merge(JsonNode order, CustomerPart customer) {
+        ObjectNode document = objectMapper.createObjectNode();
+        document.set("order", order);
+        document.set("customer", customer.customer());
+        document.put("degraded", customer.degraded());
+        return document;
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, ObjectNode document) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(document);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private Mono<Void> fail(ServerHttpResponse response, Throwable error) {
+        if (error instanceof WebClientResponseException e) {
+            response.setStatusCode(e.getStatusCode());
+        } else if (error instanceof TimeoutException) {
+            response.setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+        } else {
+            response.setStatusCode(HttpStatus.BAD_GATEWAY);
+        }
+        return response.setComplete();
+    }
+
+    private void count(String routeId, String fanOut) {
+        meterRegistry.counter("gateway.aggregation.requests", "route", routeId, "fan-out", fanOut).increment();
+    }
+
+    private static String customerId(JsonNode order) {
+        JsonNode customerId = order != null ? order.get("customerId") : null;
+        return customerId == null || customerId.isNull() ? null : customerId.asText();
+    }
+
+    record CustomerPart(JsonNode customer, boolean degraded) {
+    }
+
+    public static class Config implements HasRouteId {
+
+        // for each backend call
+        private Duration timeout = Duration.ofSeconds(1);
+        private String routeId;
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
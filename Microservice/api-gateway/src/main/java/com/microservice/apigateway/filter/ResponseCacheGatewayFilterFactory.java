@@ -0,0 +1,322 @@
+package com.microservice.apigateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory cache for GET responses, applied per route:
+ *
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       ttl: 30s
+ * </pre>
+ *
+ * Only 200 responses up to gateway.response-cache.maximum-entry-size are kept,
+ * and the whole store is bounded by gateway.response-cache.maximum-size bytes.
+ * Cache-Control from the backend wins over the route ttl: no-store and private
+ * responses are never stored, no-cache ones are revalidated on every request and
+ * max-age replaces the ttl. A request with Cache-Control: no-store bypasses the
+ * cache and one with no-cache forces a revalidation.
+ *
+ * A stale entry with an ETag is revalidated by forwarding the request with
+ * If-None-Match; a 304 from the backend refreshes the entry without a body
+ * transfer. The services' ETags are shallow (a hash of the rendered body), so
+ * the backend still does the full work for a 304; only the bandwidth is saved.
+ * Clients sending a matching If-None-Match get a 304 themselves.
+ *
+ * A successful POST, PUT, PATCH or DELETE through the route purges the entry for
+ * its own path and every entry of that route that isn't another single resource
+ * (/customer/7 survives a PUT /customer/5, /customer/page doesn't). Responses that
+ * embed data owned by another route, like /order/withCustomer/{id}, are only as
+ * fresh as the ttl.
+ *
+ * The filter runs in its place in the route's list: filters above it, such as
+ * RequestRateLimiter, see every request, while a cache hit never reaches the
+ * ones below it, such as ConcurrencyLimit.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_HEADER = "X-Cache";
+
+    // headers worth replaying; hop-by-hop and per-response ones (Date, Transfer-Encoding, ...) are dropped
+    private static final List<String> STORED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.CONTENT_ENCODING, HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL, HttpHeaders.VARY);
+    private static final Set<HttpMethod> WRITES = Set.of(HttpMethod.POST, HttpMethod.PUT,
+            HttpMethod.PATCH, HttpMethod.DELETE);
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final Pattern SINGLE_RESOURCE = Pattern.compile("/[^/]+/\\d+");
+
+    private final Cache<CacheKey, CachedResponse> cache;
+    private final long maximumEntrySize;
+    // bumped by every purge; a response is only stored if no purge happened while it was fetched
+    private final AtomicLong version = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry,
+            @Value("${gateway.response-cache.maximum-size:64MB}") DataSize maximumSize,
+            @Value("${gateway.response-cache.maximum-entry-size:1MB}") DataSize maximumEntrySize,
+            @Value("${gateway.response-cache.retention:10m}") Duration retention) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.maximumEntrySize = maximumEntrySize.toBytes();
+        // stale entries are kept for revalidation until they go unused for `retention`
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((CacheKey key, CachedResponse entry) -> entry.weight())
+                .expireAfterAccess(retention)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.responses");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // ordered by its place in the route, so filters listed before it see cache hits too
+        return (exchange, chain) -> filter(exchange, chain, config);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "";
+
+        if (WRITES.contains(request.getMethod())) {
+            String path = request.getPath().value();
+            return chain.filter(exchange).then(Mono.fromRunnable(() -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (status != null && status.is2xxSuccessful()) {
+                    purge(routeId, path);
+                }
+            }));
+        }
+        if (request.getMethod() != HttpMethod.GET
+                || directives(request.getHeaders()).contains("no-store")) {
+            return chain.filter(exchange);
+        }
+
+        CacheKey key = new CacheKey(routeId, request.getPath().value(), request.getURI().getRawQuery(),
+                request.getHeaders().getFirst(HttpHeaders.ACCEPT));
+        CachedResponse entry = cache.getIfPresent(key);
+        if (entry != null && entry.isFresh() && !directives(request.getHeaders()).contains("no-cache")) {
+            count("hit");
+            return writeCached(exchange.getResponse(), request.getHeaders().getIfNoneMatch(), entry, "HIT");
+        }
+
+        // read before revalidation replaces it; the mutated request shares the original's headers
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        ServerWebExchange forwarded = exchange;
+        if (entry != null && entry.etag() != null) {
+            forwarded = exchange.mutate()
+                    .request(request.mutate().header(HttpHeaders.IF_NONE_MATCH, entry.etag()).build())
+                    .build();
+        }
+        long startVersion = version.get();
+        return chain.filter(SwappableResponseFilter.decorate(forwarded, response -> new CachingResponse(response,
+                ifNoneMatch, key, entry, config.getTtl(), startVersion)));
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, List<String> ifNoneMatch,
+            CachedResponse entry, String outcome) {
+        HttpHeaders headers = response.getHeaders();
+        // replace what the cache stores; headers from earlier filters (X-RateLimit-*) stay
+        STORED_HEADERS.forEach(headers::remove);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.putAll(entry.headers());
+        headers.set(CACHE_HEADER, outcome);
+        if (entry.matches(ifNoneMatch)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(entry.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.body())));
+    }
+
+    private void store(CacheKey key, CachedResponse entry, long startVersion) {
+        if (entry.body().length <= maximumEntrySize && version.get() == startVersion) {
+            cache.put(key, entry);
+        }
+    }
+
+    private void purge(String routeId, String path) {
+        version.incrementAndGet();
+        int before = cache.asMap().size();
+        cache.asMap().keySet().removeIf(key -> key.routeId().equals(routeId)
+                && (key.path().equals(path) || !SINGLE_RESOURCE.matcher(key.path()).matches()));
+        meterRegistry.counter("gateway.response.cache.purged", "route", routeId)
+                .increment(Math.max(0, before - cache.asMap().size()));
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("gateway.response.cache.requests", "outcome", outcome).increment();
+    }
+
+    private static String directives(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        return cacheControl == null ? "" : cacheControl.toLowerCase(Locale.ROOT);
+    }
+
+    // How long a response may be served without revalidation, or null if it must not be stored.
+    private static Duration freshness(HttpHeaders headers, Duration ttl) {
+        String cacheControl = directives(headers);
+        if (cacheControl.contains("no-store") || cacheControl.contains("private")) {
+            return null;
+        }
+        if (cacheControl.contains("no-cache")) {
+            return Duration.ZERO;
+        }
+        Matcher maxAge = MAX_AGE.matcher(cacheControl);
+        return maxAge.find() ? Duration.ofSeconds(Long.parseLong(maxAge.group(1))) : ttl;
+    }
+
+    /**
+     * Stores 200 responses as they stream through and turns a backend 304 for a
+     * revalidated entry back into the cached response.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final List<String> ifNoneMatch;
+        private final CacheKey key;
+        private final CachedResponse stale;
+        private final Duration ttl;
+        private final long startVersion;
+
+        CachingResponse(ServerHttpResponse delegate, List<String> ifNoneMatch, CacheKey key,
+                CachedResponse stale, Duration ttl, long startVersion) {
+            super(delegate);
+            this.ifNoneMatch = ifNoneMatch;
+            this.key = key;
+            this.stale = stale;
+            this.ttl = ttl;
+            this.startVersion = startVersion;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            Duration freshFor = freshness(getHeaders(), ttl);
+
+            if (stale != null && status == HttpStatus.NOT_MODIFIED) {
+                count("revalidated");
+                CachedResponse refreshed = stale.refreshed(freshFor != null ? freshFor : Duration.ZERO);
+                if (freshFor != null) {
+                    store(key, refreshed, startVersion);
+                } else {
+                    cache.invalidate(key);
+                }
+                return Flux.from(body).doOnNext(DataBufferUtils::release)
+                        .then(Mono.defer(() -> writeCached(getDelegate(), ifNoneMatch, refreshed, "REVALIDATED")));
+            }
+
+            count("miss");
+            getHeaders().set(CACHE_HEADER, "MISS");
+            long contentLength = getHeaders().getContentLength();
+            if (status != HttpStatus.OK || freshFor == null || contentLength > maximumEntrySize) {
+                return super.writeWith(body);
+            }
+
+            // copy the bytes as they pass, so the client isn't kept waiting for the whole body
+            ByteArrayOutputStream copy = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 256);
+            HttpHeaders stored = new HttpHeaders();
+            STORED_HEADERS.forEach(name -> {
+                if (getHeaders().containsKey(name)) {
+                    stored.put(name, getHeaders().get(name));
+                }
+            });
+            Flux<DataBuffer> teed = Flux.from(body).map(buffer -> {
+                if (copy.size() <= maximumEntrySize) { // past the limit the copy is abandoned and store() rejects it
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(bytes), 0, bytes.length);
+                    copy.writeBytes(bytes);
+                }
+                return (DataBuffer) buffer;
+            }).doOnComplete(() -> store(key, CachedResponse.of(stored, copy.toByteArray(), freshFor), startVersion));
+            return super.writeWith(teed);
+        }
+    }
+
+    record CacheKey(String routeId, String path, String query, String accept) {
+    }
+
+    record CachedResponse(HttpHeaders headers, byte[] body, String etag, long freshUntilNanos) {
+
+        static CachedResponse of(HttpHeaders headers, byte[] body, Duration freshFor) {
+            return new CachedResponse(HttpHeaders.readOnlyHttpHeaders(headers), body, headers.getETag(),
+                    System.nanoTime() + freshFor.toNanos());
+        }
+
+        CachedResponse refreshed(Duration freshFor) {
+            return new CachedResponse(headers, body, etag, System.nanoTime() + freshFor.toNanos());
+        }
+
+        boolean isFresh() {
+            return System.nanoTime() - freshUntilNanos < 0;
+        }
+
+        // weak comparison, as If-None-Match requires
+        boolean matches(List<String> ifNoneMatch) {
+            if (etag == null) {
+                return false;
+            }
+            String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+            return ifNoneMatch.stream().anyMatch(candidate -> candidate.equals("*")
+                    || (candidate.startsWith("W/") ? candidate.substring(2) : candidate).equals(opaque));
+        }
+
+        // body plus a rough allowance for key and headers
+        int weight() {
+            return body.length + 512;
+        }
+    }
+
+    public static class Config {
+
+        private Duration ttl = Duration.ofSeconds(30);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
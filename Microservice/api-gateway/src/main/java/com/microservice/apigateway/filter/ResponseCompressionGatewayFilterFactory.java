@@ -0,0 +1,355 @@
+package com.microservice.apigateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses responses with gzip or deflate, whichever the client's
+ * Accept-Encoding prefers, applied per route:
+ *
+ * <pre>
+ * filters:
+ *   - name: ResponseCompression
+ *     args:
+ *       min-size: 2KB
+ *       level: 6
+ * </pre>
+ *
+ * Only text, JSON and XML bodies of at least min-size are compressed. When the
+ * backend doesn't send a Content-Length, the first min-size bytes are held back
+ * to decide; after that the body is compressed chunk by chunk as it arrives,
+ * never buffered whole. Streaming responses (NDJSON, server-sent events) pass
+ * through untouched, as compressing them would hold events back.
+ *
+ * Accept-Encoding is not forwarded, so backends always answer uncompressed.
+ * The filter runs in its place in the route's list and only compresses what
+ * the filters below it write. List it above ResponseCache: cache hits are then
+ * compressed too, and the cache stores and replays the one uncompressed
+ * representation whatever each client accepts. Listed below it, the cache would
+ * store whichever encoding the first client asked for. Compressed responses get
+ * a weak ETag, so revalidation still matches it.
+ *
+ * Per route and encoding, gateway.compression.bytes.in, .bytes.out and
+ * .bytes.saved count the bytes, and gateway.compression.cpu times the CPU spent
+ * compressing.
+ */
+@Component
+public class ResponseCompressionGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCompressionGatewayFilterFactory.Config> {
+
+    private static final List<MediaType> COMPRESSIBLE = List.of(MediaType.parseMediaType("text/*"),
+            MediaType.APPLICATION_JSON, MediaType.parseMediaType("application/*+json"),
+            MediaType.APPLICATION_XML, MediaType.parseMediaType("application/*+xml"),
+            MediaType.parseMediaType("application/javascript"));
+    private static final List<MediaType> STREAMING = List.of(MediaType.APPLICATION_NDJSON,
+            MediaType.TEXT_EVENT_STREAM);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCompressionGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "";
+        long minSize = config.getMinSize().toBytes();
+        // ordered by its place in the route (see the class comment)
+        return (exchange, chain) -> filter(exchange, chain, routeId, minSize, config.getLevel());
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, String routeId,
+            long minSize, int level) {
+        // read before removing it; the mutated request shares the original's headers
+        String encoding = negotiate(exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT_ENCODING));
+        ServerWebExchange forwarded = exchange.mutate()
+                .request(exchange.getRequest().mutate()
+                        .headers(headers -> headers.remove(HttpHeaders.ACCEPT_ENCODING)).build())
+                .build();
+        if (exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+            return chain.filter(forwarded);
+        }
+        return chain.filter(SwappableResponseFilter.decorate(forwarded, response -> new CompressingResponse(response,
+                encoding, routeId, minSize, level)));
+    }
+
+    // gzip or deflate by the client's q-values, gzip on a tie; null if it accepts neither
+    private static String negotiate(List<String> acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        Map<String, Double> qualities = new HashMap<>();
+        for (String header : acceptEncoding) {
+            for (String entry : header.split(",")) {
+                String[] parts = entry.trim().toLowerCase(Locale.ROOT).split(";");
+                double quality = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            quality = Double.parseDouble(parameter.substring(2));
+                        } catch (NumberFormatException e) {
+                            quality = 0;
+                        }
+                    }
+                }
+                qualities.put(parts[0].trim(), quality);
+            }
+        }
+        String best = null;
+        double bestQuality = 0;
+        for (String coding : List.of("gzip", "deflate")) {
+            double quality = qualities.getOrDefault(coding, qualities.getOrDefault("*", 0.0));
+            if (quality > bestQuality) {
+                best = coding;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isCompressible(HttpHeaders headers) {
+        MediaType contentType = headers.getContentType();
+        return contentType != null && !headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                && COMPRESSIBLE.stream().anyMatch(type -> type.includes(contentType))
+                && STREAMING.stream().noneMatch(type -> type.isCompatibleWith(contentType));
+    }
+
+    private static long size(List<DataBuffer> buffers) {
+        return buffers.stream().mapToLong(DataBuffer::readableByteCount).sum();
+    }
+
+    /**
+     * Decides, once the status, headers and (if need be) the first min-size bytes
+     * are known, whether to compress, and then encodes the body as it streams.
+     */
+    private class CompressingResponse extends ServerHttpResponseDecorator {
+
+        private final String encoding;
+        private final String routeId;
+        private final long minSize;
+        private final int level;
+
+        CompressingResponse(ServerHttpResponse delegate, String encoding, String routeId, long minSize, int level) {
+            super(delegate);
+            this.encoding = encoding;
+            this.routeId = routeId;
+            this.minSize = minSize;
+            this.level = level;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            if (getStatusCode() == HttpStatus.NO_CONTENT || getStatusCode() == HttpStatus.NOT_MODIFIED
+                    || !isCompressible(headers)) {
+                count("not-compressible");
+                return super.writeWith(body);
+            }
+            if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+                headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            if (encoding == null) {
+                count("not-accepted");
+                return super.writeWith(body);
+            }
+
+            long contentLength = headers.getContentLength();
+            if (contentLength >= 0) {
+                if (contentLength < minSize) {
+                    count("below-min-size");
+                    return super.writeWith(body);
+                }
+                return super.writeWith(compress(Flux.from(body)));
+            }
+
+            // no Content-Length: gather chunks until min-size, then pass each one on as it comes
+            AtomicLong seen = new AtomicLong();
+            Flux<List<DataBuffer>> chunks = Flux.<DataBuffer>from(body)
+                    .bufferUntil(buffer -> seen.addAndGet(buffer.readableByteCount()) >= minSize);
+            return chunks.switchOnFirst((first, all) -> {
+                Flux<DataBuffer> buffers = all.concatMapIterable(list -> list);
+                // a first batch short of min-size can only have been cut by the end of the body
+                if (!first.hasValue() || size(first.get()) < minSize) {
+                    count("below-min-size");
+                    return super.writeWith(buffers);
+                }
+                return super.writeWith(compress(buffers));
+            }).then();
+        }
+
+        private Flux<DataBuffer> compress(Flux<DataBuffer> body) {
+            count("compressed");
+            HttpHeaders headers = getHeaders();
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, encoding);
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith("W/")) {
+                headers.setETag("W/" + etag);
+            }
+
+            Encoder encoder = new Encoder(encoding, level);
+            return body.<DataBuffer>handle((buffer, sink) -> {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                DataBufferUtils.release(buffer);
+                byte[] encoded = encoder.encode(bytes);
+                if (encoded.length > 0) {
+                    sink.next(bufferFactory().wrap(encoded));
+                }
+            }).concatWith(Mono.fromSupplier(() -> bufferFactory().wrap(encoder.finish())))
+                    .doFinally(signal -> {
+                        encoder.close();
+                        record(encoder);
+                    });
+        }
+
+        private void record(Encoder encoder) {
+            meterRegistry.counter("gateway.compression.bytes.in", "route", routeId, "encoding", encoding)
+                    .increment(encoder.bytesIn);
+            meterRegistry.counter("gateway.compression.bytes.out", "route", routeId, "encoding", encoding)
+                    .increment(encoder.bytesOut);
+            meterRegistry.counter("gateway.compression.bytes.saved", "route", routeId, "encoding", encoding)
+                    .increment(encoder.bytesIn - encoder.bytesOut);
+            Timer.builder("gateway.compression.cpu").tag("route", routeId).tag("encoding", encoding)
+                    .register(meterRegistry).record(encoder.cpuNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void count(String outcome) {
+            meterRegistry.counter("gateway.compression.responses", "route", routeId, "outcome", outcome)
+                    .increment();
+        }
+    }
+
+    /**
+     * One response's deflater. Output comes out as the deflater fills its blocks
+     * rather than per input chunk, which keeps the ratio of a one-shot compression.
+     */
+    private static final class Encoder {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        private final DeflaterOutputStream stream;
+        private boolean closed;
+        long bytesIn;
+        long bytesOut;
+        long cpuNanos;
+
+        Encoder(String encoding, int level) {
+            try {
+                stream = encoding.equals("gzip")
+                        ? new GZIPOutputStream(out, 8192) {{ def.setLevel(level); }}
+                        : new DeflaterOutputStream(out) {{ def.setLevel(level); }};
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        byte[] encode(byte[] bytes) {
+            long start = cpuTime();
+            try {
+                stream.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            bytesIn += bytes.length;
+            return drain(start);
+        }
+
+        byte[] finish() {
+            long start = cpuTime();
+            close();
+            return drain(start);
+        }
+
+        // ends the deflater, which holds native memory, on cancellation and errors too
+        void close() {
+            if (!closed) {
+                closed = true;
+                try {
+                    stream.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private byte[] drain(long start) {
+            byte[] encoded = out.toByteArray();
+            out.reset();
+            bytesOut += encoded.length;
+            cpuNanos += cpuTime() - start;
+            return encoded;
+        }
+
+        private static long cpuTime() {
+            return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+        }
+    }
+
+    public static class Config implements HasRouteId {
+
+        private DataSize minSize = DataSize.ofKilobytes(2);
+        private int level = 6;
+        private String routeId;
+
+        public DataSize getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(DataSize minSize) {
+            this.minSize = minSize;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public void setLevel(int level) {
+            this.level = level;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.microservice.apigateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Lets route filters decorate the response from their place in the route.
+ *
+ * NettyWriteResponseFilter writes the backend body into the response of the
+ * exchange it was handed, so a filter ordered after it can't swap in a
+ * decorator the usual way, by mutating the exchange. Forcing such filters in
+ * front of NettyWriteResponseFilter would also put them in front of every
+ * positionally ordered filter, rate limiting included. Instead this filter
+ * hands NettyWriteResponseFilter a response whose delegate route filters can
+ * still wrap through {@link #decorate}, so they keep the order they are listed
+ * in.
+ */
+@Component
+public class SwappableResponseFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange.mutate().response(new SwappableResponse(exchange.getResponse())).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    /**
+     * Wraps the exchange's response in decorator and returns the exchange to
+     * pass down the chain. Filters that run later wrap around this one, so they
+     * see the body first.
+     */
+    public static ServerWebExchange decorate(ServerWebExchange exchange,
+            UnaryOperator<ServerHttpResponse> decorator) {
+        if (exchange.getResponse() instanceof SwappableResponse swappable) {
+            swappable.wrap(decorator);
+            return exchange;
+        }
+        // no SwappableResponse (a filter ordered before this one, or a test): decorate the usual way
+        return exchange.mutate().response(decorator.apply(exchange.getResponse())).build();
+    }
+
+    private static final class SwappableResponse extends ServerHttpResponseDecorator {
+
+        // only changed by the filters of one exchange, which run one after another
+        private volatile ServerHttpResponse delegate;
+
+        SwappableResponse(ServerHttpResponse delegate) {
+            super(delegate);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ServerHttpResponse getDelegate() {
+            return delegate;
+        }
+
+        void wrap(UnaryOperator<ServerHttpResponse> decorator) {
+            delegate = decorator.apply(delegate);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.microservice.apigateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Identifies the client a request counts against: its X-API-Key header, or
+ * failing that its IP address.
+ */
+@Component("clientKeyResolver")
+public class ClientKeyResolver implements KeyResolver {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        String apiKey = exchange.getRequest().getHeaders().getFirst(API_KEY_HEADER);
+        if (apiKey != null && !apiKey.isBlank()) {
+            return Mono.just("key:" + apiKey);
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        return remoteAddress == null ? Mono.empty()
+                : Mono.just("ip:" + remoteAddress.getAddress().getHostAddress());
+    }
+}
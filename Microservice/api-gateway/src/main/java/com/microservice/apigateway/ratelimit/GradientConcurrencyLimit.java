@@ -0,0 +1,78 @@
+package com.microservice.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive limit on requests in flight to one backend, after the Gradient2
+ * algorithm from Netflix's concurrency-limits.
+ *
+ * A slow moving average of response times stands for the backend's latency
+ * without a queue. Each response compares its own time against it: while they
+ * agree (within rttTolerance) the limit grows by about sqrt(limit); once the
+ * backend slows down the limit is cut in proportion, to at most half. Requests
+ * over the limit are refused, so the queue builds here, where it is cheap to
+ * answer 429, rather than in the backend's threads.
+ */
+public class GradientConcurrencyLimit {
+
+    // about the last 600 samples make up the long-term average
+    private static final double LONG_RTT_WEIGHT = 2.0 / 601;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double longRttNanos;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double rttTolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.limit = initialLimit;
+    }
+
+    public boolean tryAcquire() {
+        for (int current = inFlight.get(); current < (int) limit; current = inFlight.get()) {
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gives back a permit from tryAcquire(); rttNanos adjusts the limit unless
+     * the request produced no meaningful timing (failed, cancelled), passed as a negative value.
+     */
+    public void release(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (rttNanos > 0) {
+            update(rttNanos, inFlightBefore);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightBefore) {
+        longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos + (rttNanos - longRttNanos) * LONG_RTT_WEIGHT;
+        // after a slow period the average lags behind a recovered backend; let it catch up faster
+        if (longRttNanos > 2 * rttNanos) {
+            longRttNanos *= 0.95;
+        }
+        // a limit that isn't being reached says nothing about whether it could be higher
+        if (inFlightBefore < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / rttNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+}
@@ -0,0 +1,82 @@
+package com.microservice.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Token buckets held by this gateway instance; with several instances each
+ * one enforces the limits on its own share of the traffic.
+ *
+ * A bucket is dropped once it has been idle long enough to be full again, so
+ * dropping it changes nothing. At most gateway.rate-limit.maximum-clients buckets
+ * are kept; past that the least recently used go early and their clients start
+ * over with a full bucket.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenBucketStore implements TokenBucketStore {
+
+    private final Cache<String, Bucket> buckets;
+
+    public InMemoryTokenBucketStore(@Value("${gateway.rate-limit.maximum-clients:100000}") long maximumClients) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumClients)
+                .expireAfter(new Expiry<String, Bucket>() {
+                    @Override
+                    public long expireAfterCreate(String key, Bucket bucket, long currentTime) {
+                        return bucket.fillTimeNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Bucket bucket, long currentTime, long currentDuration) {
+                        return bucket.fillTimeNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Bucket bucket, long currentTime, long currentDuration) {
+                        return bucket.fillTimeNanos();
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public Mono<Result> tryConsume(String key, int replenishRate, int burstCapacity, int requested) {
+        Bucket bucket = buckets.get(key, k -> new Bucket(replenishRate, burstCapacity));
+        return Mono.just(bucket.tryConsume(requested));
+    }
+
+    private static final class Bucket {
+
+        private final double tokensPerNano;
+        private final int capacity;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        Bucket(int replenishRate, int capacity) {
+            this.tokensPerNano = replenishRate / 1e9;
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        synchronized Result tryConsume(int requested) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens < requested) {
+                return new Result(false, (long) tokens);
+            }
+            tokens -= requested;
+            return new Result(true, (long) tokens);
+        }
+
+        long fillTimeNanos() {
+            return (long) Math.ceil(capacity / tokensPerNano);
+        }
+    }
+}
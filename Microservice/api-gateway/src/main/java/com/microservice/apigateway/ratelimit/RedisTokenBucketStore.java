@@ -0,0 +1,57 @@
+package com.microservice.apigateway.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token buckets in Redis, shared by every gateway instance. Each check is one
+ * round trip running Spring Cloud Gateway's request_rate_limiter.lua, which
+ * refills and takes tokens atomically using the Redis server's clock, so
+ * instances don't need synchronized clocks.
+ *
+ * If Redis can't be reached the request is let through: losing the limiter
+ * shouldn't take the routes down with it.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.rate-limit.store", havingValue = "redis")
+public class RedisTokenBucketStore implements TokenBucketStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisTokenBucketStore.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RedisScript<List<Long>> script;
+
+    public RedisTokenBucketStore(ReactiveStringRedisTemplate redisTemplate,
+            @Qualifier("redisRequestRateLimiterScript") RedisScript<List<Long>> script) {
+        this.redisTemplate = redisTemplate;
+        this.script = script;
+    }
+
+    @Override
+    public Mono<Result> tryConsume(String key, int replenishRate, int burstCapacity, int requested) {
+        // the braces make both keys hash to the same slot on Redis Cluster
+        List<String> keys = List.of("rate_limiter.{" + key + "}.tokens", "rate_limiter.{" + key + "}.timestamp");
+        // an empty `now` makes the script use the Redis server's TIME
+        List<String> args = List.of(String.valueOf(replenishRate), String.valueOf(burstCapacity), "",
+                String.valueOf(requested));
+        return redisTemplate.execute(script, keys, args)
+                .reduce(new ArrayList<Long>(), (all, part) -> {
+                    all.addAll(part);
+                    return all;
+                })
+                .map(result -> new Result(result.get(0) == 1L, result.get(1)))
+                .onErrorResume(e -> {
+                    log.warn("Rate limiter store unavailable, letting {} through: {}", key, e.toString());
+                    return Mono.just(new Result(true, -1));
+                });
+    }
+}
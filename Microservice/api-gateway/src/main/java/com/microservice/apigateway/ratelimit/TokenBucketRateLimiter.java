@@ -0,0 +1,93 @@
+package com.microservice.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Token bucket per client and route, for the gateway's RequestRateLimiter filter:
+ *
+ * <pre>
+ * filters:
+ *   - name: RequestRateLimiter
+ *     args:
+ *       rate-limiter: "#{@tokenBucketRateLimiter}"
+ *       key-resolver: "#{@clientKeyResolver}"
+ *       token-bucket.replenish-rate: 100
+ *       token-bucket.burst-capacity: 200
+ * </pre>
+ *
+ * A client may send burstCapacity requests at once and replenishRate per second
+ * after that; the rest get 429. The buckets are kept by whichever
+ * TokenBucketStore is configured. @Primary because the gateway also registers its
+ * own RedisRateLimiter whenever Redis is on the classpath.
+ */
+@Primary
+@Component
+public class TokenBucketRateLimiter extends AbstractRateLimiter<TokenBucketRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "token-bucket";
+
+    private final TokenBucketStore store;
+    private final MeterRegistry meterRegistry;
+
+    public TokenBucketRateLimiter(TokenBucketStore store, ConfigurationService configurationService,
+            MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().get(routeId);
+        if (config == null) {
+            throw new IllegalArgumentException("No token-bucket configuration for route " + routeId);
+        }
+        return store.tryConsume(routeId + ":" + id, config.getReplenishRate(), config.getBurstCapacity(),
+                config.getRequestedTokens()).map(result -> {
+                    meterRegistry.counter("gateway.rate-limit.requests", "route", routeId,
+                            "outcome", result.allowed() ? "allowed" : "rejected").increment();
+                    return new Response(result.allowed(), Map.of(
+                            "X-RateLimit-Remaining", String.valueOf(result.remaining()),
+                            "X-RateLimit-Replenish-Rate", String.valueOf(config.getReplenishRate()),
+                            "X-RateLimit-Burst-Capacity", String.valueOf(config.getBurstCapacity())));
+                });
+    }
+
+    public static class Config {
+
+        private int replenishRate = 100;
+        private int burstCapacity = 200;
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public void setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.microservice.apigateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Where token buckets live: in this gateway's memory, or in Redis so every
+ * gateway instance draws from the same buckets. Picked by gateway.rate-limit.store.
+ *
+ * A bucket holds up to burstCapacity tokens and gains replenishRate tokens per
+ * second; a bucket that was never used, or has been idle long enough to refill,
+ * is full.
+ */
+public interface TokenBucketStore {
+
+    /**
+     * Takes `requested` tokens from the bucket for `key` if it holds that many.
+     */
+    Mono<Result> tryConsume(String key, int replenishRate, int burstCapacity, int requested);
+
+    record Result(boolean allowed, long remaining) {
+    }
+}
@@ -0,0 +1,202 @@
+package com.microservice.apigateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives ResponseCache the way the gateway does, behind SwappableResponseFilter,
+ * against a stub backend that answers If-None-Match like the services'
+ * ShallowEtagHeaderFilter.
+ */
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final Route ROUTE = Route.async()
+            .id("CUSTOMER-SERVICE")
+            .uri("lb://CUSTOMER-SERVICE")
+            .predicate(exchange -> true)
+            .build();
+
+    private final Map<String, String> bodies = new HashMap<>();
+    private int backendCalls;
+    private int backendBodies;
+    private String lastIfNoneMatch;
+    private HttpStatus writeStatus = HttpStatus.OK;
+
+    private ResponseCacheGatewayFilterFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        factory = new ResponseCacheGatewayFilterFactory(new SimpleMeterRegistry(), DataSize.ofMegabytes(64),
+                DataSize.ofMegabytes(1), Duration.ofMinutes(10));
+        bodies.put("/customer/1", "{\"customerId\":1}");
+        bodies.put("/customer/7", "{\"customerId\":7}");
+        bodies.put("/customer/page", "[{\"customerId\":1},{\"customerId\":7}]");
+    }
+
+    @Test
+    void secondGetIsServedFromTheCache() {
+        GatewayFilter cache = cache(Duration.ofSeconds(30));
+
+        MockServerHttpResponse miss = get(cache, "/customer/1");
+        MockServerHttpResponse hit = get(cache, "/customer/1");
+
+        assertThat(miss.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER)).isEqualTo("MISS");
+        assertThat(hit.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER)).isEqualTo("HIT");
+        assertThat(hit.getBodyAsString().block()).isEqualTo("{\"customerId\":1}");
+        assertThat(backendCalls).isEqualTo(1);
+    }
+
+    @Test
+    void successfulWritePurgesItsPathAndTheRouteListingsButNotOtherResources() {
+        GatewayFilter cache = cache(Duration.ofSeconds(30));
+        get(cache, "/customer/1");
+        get(cache, "/customer/7");
+        get(cache, "/customer/page");
+
+        send(cache, HttpMethod.PUT, "/customer/1");
+
+        assertThat(outcome(get(cache, "/customer/1"))).isEqualTo("MISS");
+        assertThat(outcome(get(cache, "/customer/page"))).isEqualTo("MISS");
+        assertThat(outcome(get(cache, "/customer/7"))).isEqualTo("HIT");
+    }
+
+    @Test
+    void failedWritePurgesNothing() {
+        GatewayFilter cache = cache(Duration.ofSeconds(30));
+        get(cache, "/customer/1");
+        writeStatus = HttpStatus.NOT_FOUND;
+
+        send(cache, HttpMethod.DELETE, "/customer/1");
+
+        assertThat(outcome(get(cache, "/customer/1"))).isEqualTo("HIT");
+    }
+
+    @Test
+    void staleEntryIsRevalidatedWithItsETag() {
+        GatewayFilter cache = cache(Duration.ZERO);
+        MockServerHttpResponse first = get(cache, "/customer/1");
+
+        MockServerHttpResponse revalidated = get(cache, "/customer/1");
+
+        assertThat(lastIfNoneMatch).isEqualTo(first.getHeaders().getETag());
+        assertThat(backendBodies).isEqualTo(1); // the backend answered 304 the second time
+        assertThat(revalidated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(outcome(revalidated)).isEqualTo("REVALIDATED");
+        assertThat(revalidated.getBodyAsString().block()).isEqualTo("{\"customerId\":1}");
+    }
+
+    @Test
+    void changedResourceReplacesTheStaleEntry() {
+        GatewayFilter cache = cache(Duration.ZERO);
+        get(cache, "/customer/1");
+        bodies.put("/customer/1", "{\"customerId\":1,\"firstName\":\"Ada\"}");
+
+        MockServerHttpResponse changed = get(cache, "/customer/1");
+        MockServerHttpResponse revalidated = get(cache, "/customer/1");
+
+        assertThat(outcome(changed)).isEqualTo("MISS");
+        assertThat(changed.getBodyAsString().block()).contains("Ada");
+        assertThat(outcome(revalidated)).isEqualTo("REVALIDATED");
+        assertThat(revalidated.getBodyAsString().block()).contains("Ada");
+    }
+
+    @Test
+    void noCacheRequestForcesARevalidation() {
+        GatewayFilter cache = cache(Duration.ofSeconds(30));
+        get(cache, "/customer/1");
+
+        MockServerHttpResponse response = run(cache, MockServerHttpRequest.get("/customer/1")
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache").build());
+
+        assertThat(outcome(response)).isEqualTo("REVALIDATED");
+        assertThat(backendCalls).isEqualTo(2);
+    }
+
+    @Test
+    void matchingIfNoneMatchGetsNotModifiedFromTheCache() {
+        GatewayFilter cache = cache(Duration.ofSeconds(30));
+        String etag = get(cache, "/customer/1").getHeaders().getETag();
+
+        MockServerHttpResponse response = run(cache, MockServerHttpRequest.get("/customer/1")
+                .ifNoneMatch(etag).build());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(outcome(response)).isEqualTo("HIT");
+        assertThat(backendCalls).isEqualTo(1);
+    }
+
+    private GatewayFilter cache(Duration ttl) {
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setTtl(ttl);
+        return factory.apply(config);
+    }
+
+    private MockServerHttpResponse get(GatewayFilter cache, String path) {
+        return run(cache, MockServerHttpRequest.get(path).build());
+    }
+
+    private MockServerHttpResponse send(GatewayFilter cache, HttpMethod method, String path) {
+        return run(cache, MockServerHttpRequest.method(method, path).build());
+    }
+
+    private MockServerHttpResponse run(GatewayFilter cache, MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+        new SwappableResponseFilter().filter(exchange, forwarded -> cache.filter(forwarded, backend()))
+                .block(Duration.ofSeconds(5));
+        return exchange.getResponse();
+    }
+
+    // Writes through writeWith even for a 304, as NettyWriteResponseFilter does.
+    private GatewayFilterChain backend() {
+        return exchange -> {
+            backendCalls++;
+            String path = exchange.getRequest().getPath().value();
+            ServerHttpResponse response = exchange.getResponse();
+            if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+                response.setStatusCode(writeStatus);
+                return response.writeWith(Flux.empty());
+            }
+            String body = bodies.get(path);
+            String etag = "\"" + Integer.toHexString(body.hashCode()) + "\"";
+            lastIfNoneMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            response.getHeaders().setETag(etag);
+            if (etag.equals(lastIfNoneMatch)) {
+                response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                return response.writeWith(Flux.empty());
+            }
+            backendBodies++;
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+            response.getHeaders().setContentLength(bytes.length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        };
+    }
+
+    private static String outcome(MockServerHttpResponse response) {
+        return response.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER);
+    }
+}
@@ -0,0 +1,83 @@
+#!/bin/bash
+
+# Order Service Mode Benchmark
+# Runs order-service in the servlet (default) and reactive profiles one after
+# the other and load-tests the same endpoints against each.
+# Service Registry and Customer Service must already be running.
+#
+# Usage: ./benchmark-order-modes.sh [concurrency] [seconds] [orders]
+
+CONCURRENCY=${1:-200}
+SECONDS_PER_RUN=${2:-30}
+ORDERS=${3:-100}
+
+mkdir -p logs
+# api-gateway and order-service run against the shared load-balancer module from the local repository
+mvn -q install -pl load-balancer -am -DskipTests
+
+wait_for_service() {
+    local port=$1
+    local service_name=$2
+    local max_attempts=60
+    local attempt=1
+
+    while [ $attempt -le $max_attempts ]; do
+        if curl -s http://localhost:$port/actuator/health >/dev/null 2>&1; then
+            echo "✅ $service_name is ready!"
+            return 0
+        fi
+        sleep 2
+        attempt=$((attempt + 1))
+    done
+
+    echo "❌ $service_name failed to start within timeout"
+    return 1
+}
+
+live_threads() {
+    curl -s http://localhost:9002/actuator/metrics/jvm.threads.live | grep -o '"value":[0-9.]*' | grep -o '[0-9.]*'
+}
+
+if ! curl -s http://localhost:9001/customer/ >/dev/null; then
+    echo "❌ Customer Service is not running on port 9001"
+    exit 1
+fi
+
+echo "👥 Creating $ORDERS test customers..."
+RUN_ID=$(date +%s)
+for i in $(seq 1 $ORDERS); do
+    curl -s -X POST http://localhost:9001/customer/ -H "Content-Type: application/json" \
+        -d "{\"firstName\":\"Load\",\"lastName\":\"Test$i\",\"email\":\"load$i.$RUN_ID@example.com\"}" > /dev/null
+done
+CUSTOMER_IDS=($(curl -s http://localhost:9001/customer/ | grep -o '"customerId":[0-9]*' | grep -o '[0-9]*' | tail -n $ORDERS))
+
+for MODE in servlet reactive; do
+    echo ""
+    echo "📦 Starting Order Service in $MODE mode..."
+    PROFILE_ARG=""
+    if [ "$MODE" = "reactive" ]; then
+        PROFILE_ARG="-Dspring-boot.run.profiles=reactive"
+    fi
+    cd order-service
+    # show-sql off: only the JPA side would pay for logging every statement
+    nohup mvn spring-boot:run $PROFILE_ARG -Dspring-boot.run.jvmArguments="-Xmx512m -Dspring.jpa.show-sql=false" > ../logs/order-service-$MODE.log 2>&1 &
+    cd ..
+    wait_for_service 9002 "Order Service ($MODE)" || exit 1
+
+    for i in $(seq 1 $ORDERS); do
+        curl -s -X POST http://localhost:9002/order/ -H "Content-Type: application/json" \
+            -d "{\"orderName\":\"Order $i\",\"orderAmount\":10.0,\"customerId\":${CUSTOMER_IDS[$((i - 1))]}}" > /dev/null
+    done
+    # give Eureka time to hand out CUSTOMER-SERVICE, then warm up
+    sleep 30
+    java load-test/OrderLoadTest.java "http://localhost:9002/order/withCustomer/{n}" $CONCURRENCY 10 $ORDERS > /dev/null
+
+    echo "📊 $MODE: GET /order/{id}"
+    java load-test/OrderLoadTest.java "http://localhost:9002/order/{n}" $CONCURRENCY $SECONDS_PER_RUN $ORDERS
+    echo "📊 $MODE: GET /order/withCustomer/{id}"
+    java load-test/OrderLoadTest.java "http://localhost:9002/order/withCustomer/{n}" $CONCURRENCY $SECONDS_PER_RUN $ORDERS
+    echo "🧵 $MODE: live JVM threads after load: $(live_threads)"
+
+    lsof -ti:9002 | xargs kill 2>/dev/null
+    sleep 5
+done
@@ -1,7 +1,14 @@
 package com.microservice.customerservice;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
 @SpringBootApplication
 public class CustomerServiceApplication {
@@ -9,4 +16,18 @@ public class CustomerServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(CustomerServiceApplication.class, args);
     }
+
+    // GET responses except the NDJSON listings; see Response Cache in the README
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                String accept = request.getHeader(HttpHeaders.ACCEPT);
+                return !HttpMethod.GET.matches(request.getMethod())
+                        || (accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE));
+            }
+        };
+        return new FilterRegistrationBean<>(filter);
+    }
 }
\ No newline at end of file
@@ -1,13 +1,23 @@
 package com.microservice.customerservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservice.customerservice.entity.Customer;
+import com.microservice.customerservice.exception.DuplicateEmailException;
 import com.microservice.customerservice.service.CustomerService;
+import com.microservice.customerservice.vo.CustomerPage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -16,12 +26,15 @@ import java.util.Optional;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/")
     public ResponseEntity<Customer> saveCustomer(@RequestBody Customer customer) {
         try {
             Customer savedCustomer = customerService.saveCustomer(customer);
             return new ResponseEntity<>(savedCustomer, HttpStatus.CREATED);
+        } catch (DuplicateEmailException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
@@ -34,18 +47,41 @@ public class CustomerController {
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Map<Long, Customer>> getCustomersByIds(@RequestBody List<Long> customerIds) {
+        Map<Long, Customer> customers = customerService.getCustomersByIds(new LinkedHashSet<>(customerIds));
+        return new ResponseEntity<>(customers, HttpStatus.OK);
+    }
+
     @GetMapping("/")
     public ResponseEntity<List<Customer>> getAllCustomers() {
         List<Customer> customers = customerService.getAllCustomers();
         return new ResponseEntity<>(customers, HttpStatus.OK);
     }
 
+    // Same listing as NDJSON, written row by row as it is read, for clients that ask for application/x-ndjson.
+    @GetMapping(value = "/", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllCustomers() {
+        StreamingResponseBody body = out -> customerService.streamAllCustomers(customer -> writeLine(out, customer));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CustomerPage> getCustomerPage(
+            @RequestParam(value = "after", defaultValue = "0") Long afterCustomerId,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        CustomerPage page = customerService.getCustomerPage(afterCustomerId, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Customer> updateCustomer(@PathVariable("id") Long customerId,
             @RequestBody Customer customerDetails) {
         try {
             Customer updatedCustomer = customerService.updateCustomer(customerId, customerDetails);
             return new ResponseEntity<>(updatedCustomer, HttpStatus.OK);
+        } catch (DuplicateEmailException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -60,4 +96,13 @@ public class CustomerController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
\ No newline at end of file
@@ -6,12 +6,14 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "customers")
+@Table(name = "customers", uniqueConstraints = @UniqueConstraint(name = Customer.EMAIL_CONSTRAINT, columnNames = "email"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class Customer {
 
+    public static final String EMAIL_CONSTRAINT = "uk_customers_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long customerId;
@@ -22,7 +24,7 @@ public class Customer {
     @Column(nullable = false)
     private String lastName;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     private String phone;
@@ -0,0 +1,9 @@
+package com.microservice.customerservice.exception;
+
+// Another customer already has this email (enforced by the unique constraint on customers.email).
+public class DuplicateEmailException extends RuntimeException {
+
+    public DuplicateEmailException(String email) {
+        super("Customer with email " + email + " already exists");
+    }
+}
@@ -1,10 +1,17 @@
 package com.microservice.customerservice.repository;
 
 import com.microservice.customerservice.entity.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
@@ -12,4 +19,14 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    // Keyset page: a range scan on the primary key, equally cheap however deep the page is.
+    List<Customer> findByCustomerIdGreaterThanOrderByCustomerIdAsc(Long customerId, Limit limit);
+
+    // Reads from an open JDBC cursor; must be consumed (and closed) inside a transaction.
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Customer> streamAllByOrderByCustomerIdAsc();
+
+    @Query("select c.email from Customer c")
+    Stream<String> streamAllEmails();
 }
\ No newline at end of file
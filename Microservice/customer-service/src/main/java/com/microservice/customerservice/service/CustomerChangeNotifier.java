@@ -0,0 +1,67 @@
+package com.microservice.customerservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tells every instance of the services caching customers (order-service's near
+ * cache) that a customer changed, so they drop their copy.
+ *
+ * Instances come from the DiscoveryClient: Eureka when it is running, or
+ * spring.cloud.discovery.client.simple.instances as a local stand-in.
+ * Notification is best effort and off the request thread; a lost one leaves
+ * a stale entry only until the cache's TTL.
+ */
+@Component
+public class CustomerChangeNotifier implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerChangeNotifier.class);
+
+    private final DiscoveryClient discoveryClient;
+    private final List<String> subscribers;
+    // plain (not load-balanced) template: every instance must hear about the change
+    private final RestTemplate restTemplate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public CustomerChangeNotifier(DiscoveryClient discoveryClient, RestTemplateBuilder builder,
+            @Value("${customer.change-notification.subscribers:ORDER-SERVICE}") List<String> subscribers,
+            @Value("${customer.change-notification.timeout:500ms}") Duration timeout) {
+        this.discoveryClient = discoveryClient;
+        this.subscribers = subscribers;
+        this.restTemplate = builder.setConnectTimeout(timeout).setReadTimeout(timeout).build();
+    }
+
+    public void customerChanged(Long customerId) {
+        for (String service : subscribers) {
+            for (ServiceInstance instance : discoveryClient.getInstances(service)) {
+                executor.execute(() -> notify(instance, customerId));
+            }
+        }
+    }
+
+    private void notify(ServiceInstance instance, Long customerId) {
+        try {
+            restTemplate.delete(instance.getUri() + "/internal/customer-cache/" + customerId);
+        } catch (RestClientException e) {
+            log.warn("Could not notify {} of change to customer {}: {}", instance.getUri(), customerId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
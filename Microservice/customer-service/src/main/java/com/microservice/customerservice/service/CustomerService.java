@@ -1,34 +1,90 @@
 package com.microservice.customerservice.service;
 
 import com.microservice.customerservice.entity.Customer;
+import com.microservice.customerservice.exception.DuplicateEmailException;
 import com.microservice.customerservice.repository.CustomerRepository;
+import com.microservice.customerservice.vo.CustomerPage;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final CustomerChangeNotifier changeNotifier;
+    private final EntityManager entityManager;
+    private final EmailBloomFilter emailFilter;
 
+    @Value("${customer.listing.max-page-size:1000}")
+    private int maxPageSize;
+
+    /**
+     * Inserts the customer, relying on the unique constraint for duplicate emails.
+     * An email the filter has never seen is inserted straight away, one round
+     * trip. Only a filter hit (a probable duplicate) pays for an exists check first.
+     */
     public Customer saveCustomer(Customer customer) {
-        if (customerRepository.existsByEmail(customer.getEmail())) {
-            throw new RuntimeException("Customer with email " + customer.getEmail() + " already exists");
+        String email = customer.getEmail();
+        if (email != null && emailFilter.mightContain(email) && customerRepository.existsByEmail(email)) {
+            throw new DuplicateEmailException(email);
         }
-        return customerRepository.save(customer);
+        Customer saved = saveUniqueEmail(customer);
+        emailFilter.add(email);
+        return saved;
     }
 
     public Optional<Customer> getCustomerById(Long customerId) {
         return customerRepository.findById(customerId);
     }
 
+    // One IN query for the whole batch; unknown ids are simply absent from the map.
+    public Map<Long, Customer> getCustomersByIds(Collection<Long> customerIds) {
+        return customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getCustomerId, Function.identity()));
+    }
+
     public List<Customer> getAllCustomers() {
         return customerRepository.findAll();
     }
 
+    // Customers with customerId > afterCustomerId; the page size is clamped to 1..max-page-size.
+    public CustomerPage getCustomerPage(Long afterCustomerId, int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        return CustomerPage.of(customerRepository.findByCustomerIdGreaterThanOrderByCustomerIdAsc(afterCustomerId,
+                Limit.of(size + 1)), size);
+    }
+
+    /**
+     * Hands every customer, in customerId order, to the consumer one row at a
+     * time, detaching each once consumed so memory stays flat as the table grows.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllCustomers(Consumer<Customer> consumer) {
+        try (Stream<Customer> customers = customerRepository.streamAllByOrderByCustomerIdAsc()) {
+            customers.forEach(customer -> {
+                consumer.accept(customer);
+                entityManager.detach(customer);
+            });
+        }
+    }
+
     public Customer updateCustomer(Long customerId, Customer customerDetails) {
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + customerId));
@@ -39,12 +95,30 @@ public class CustomerService {
         customer.setPhone(customerDetails.getPhone());
         customer.setAddress(customerDetails.getAddress());
 
-        return customerRepository.save(customer);
+        Customer updated = saveUniqueEmail(customer);
+        emailFilter.add(updated.getEmail());
+        changeNotifier.customerChanged(customerId);
+        return updated;
     }
 
     public void deleteCustomer(Long customerId) {
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + customerId));
         customerRepository.delete(customer);
+        changeNotifier.customerChanged(customerId);
+    }
+
+    private Customer saveUniqueEmail(Customer customer) {
+        try {
+            return customerRepository.save(customer);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Customer.EMAIL_CONSTRAINT)) {
+                emailFilter.add(customer.getEmail());
+                throw new DuplicateEmailException(customer.getEmail());
+            }
+            throw e;
+        }
     }
 }
\ No newline at end of file
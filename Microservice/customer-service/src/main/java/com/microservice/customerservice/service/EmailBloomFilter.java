@@ -0,0 +1,102 @@
+package com.microservice.customerservice.service;
+
+import com.microservice.customerservice.repository.CustomerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over the emails of customers known to this instance, so
+ * registration can skip the duplicate check for emails that are certainly new.
+ *
+ * mightContain() never returns false for an email that was added, but may
+ * return true for one that wasn't (about customer.email-filter.false-positive-rate
+ * of the time at the expected size). Emails can't be removed, and customers
+ * created by other instances aren't added, so a hit or a miss is only a hint;
+ * the unique constraint on Customer.email is what keeps emails unique.
+ *
+ * Lock-free: bits are set with atomic ORs.
+ */
+@Component
+public class EmailBloomFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailBloomFilter.class);
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public EmailBloomFilter(CustomerRepository customerRepository, TransactionTemplate transactionTemplate,
+            @Value("${customer.email-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${customer.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = transactionTemplate;
+        // standard sizing: m = -n ln p / (ln 2)^2 bits, k = m/n ln 2 hashes
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) Math.max(1, (optimalBits + 63) / 64));
+        this.bitCount = bits.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public boolean mightContain(String email) {
+        long h1 = hash(email, 0x9E3779B97F4A7C15L);
+        long h2 = hash(email, 0xC2B2AE3D27D4EB4FL);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void add(String email) {
+        long h1 = hash(email, 0x9E3779B97F4A7C15L);
+        long h2 = hash(email, 0xC2B2AE3D27D4EB4FL);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (current, set) -> current | set);
+            }
+        }
+    }
+
+    // Loads the emails already in the database, streamed so a large table isn't held in memory.
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadExistingEmails() {
+        long loaded = transactionTemplate.execute(status -> {
+            try (Stream<String> emails = customerRepository.streamAllEmails()) {
+                return emails.mapToLong(email -> {
+                    add(email);
+                    return 1;
+                }).sum();
+            }
+        });
+        log.info("Email filter loaded with {} existing emails ({} bits, {} hashes)", loaded, bitCount, hashCount);
+    }
+
+    // Multiplicative string hash finished with the murmur3 64-bit mixer; two seeds give the two double-hashing bases.
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,30 @@
+package com.microservice.customerservice.vo;
+
+import com.microservice.customerservice.entity.Customer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of customers in customerId order. Pass nextAfter back as
+ * "after" to get the following page; it is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerPage {
+
+    private List<Customer> customers;
+    private Long nextAfter;
+
+    // Built from a query for size + 1 rows: the extra row only tells us another page exists.
+    public static CustomerPage of(List<Customer> fetched, int size) {
+        if (fetched.size() <= size) {
+            return new CustomerPage(fetched, null);
+        }
+        List<Customer> customers = fetched.subList(0, size);
+        return new CustomerPage(customers, customers.get(size - 1).getCustomerId());
+    }
+}
@@ -0,0 +1,127 @@
+package com.microservice.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps, per service instance, the requests in flight and a peak-sensitive
+ * moving average of response times, fed by the load balancer's lifecycle
+ * callbacks around every call it routes. PeakEwmaLoadBalancer reads it.
+ *
+ * The average jumps straight up to a slower response and decays towards faster
+ * ones (and, with no traffic, towards zero) over {prefix}.decay-time, so an
+ * instance that slows down is avoided at once and retried once it has been left
+ * alone for a while. A failed call or 5xx counts as a {prefix}.failure-penalty
+ * response. Each application registers one as a bean with its own property
+ * prefix, e.g. gateway.load-balancer.
+ */
+public class InstanceLoadTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    // cost of an instance that has requests in flight but hasn't answered any yet
+    private static final double UNMEASURED_PENALTY = Duration.ofSeconds(10).toNanos();
+
+    private final Map<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+    private final String propertyPrefix;
+    private final double decayNanos;
+    private final long failurePenaltyNanos;
+
+    public InstanceLoadTracker(Environment environment, String propertyPrefix) {
+        this.propertyPrefix = propertyPrefix;
+        this.decayNanos = environment.getProperty(propertyPrefix + ".decay-time", Duration.class,
+                Duration.ofSeconds(10)).toNanos();
+        this.failurePenaltyNanos = environment.getProperty(propertyPrefix + ".failure-penalty", Duration.class,
+                Duration.ofSeconds(1)).toNanos();
+    }
+
+    // where this application's load balancer settings live, e.g. gateway.load-balancer
+    public String getPropertyPrefix() {
+        return propertyPrefix;
+    }
+
+    /**
+     * Expected wait on this instance: average response time times the requests
+     * already queued on it, plus this one.
+     */
+    public double cost(ServiceInstance instance) {
+        return load(instance).cost();
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext timed) {
+            timed.setRequestStartTime(System.nanoTime());
+        }
+        load(lbResponse.getServer()).inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceLoad load = load(lbResponse.getServer());
+        load.inFlight.decrementAndGet();
+
+        long start = completionContext.getLoadBalancerRequest() != null
+                && completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed
+                ? timed.getRequestStartTime() : 0;
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || (completionContext.getClientResponse() instanceof ResponseData data
+                        && data.getHttpStatus() != null && data.getHttpStatus().is5xxServerError());
+        if (failed) {
+            load.observe(failurePenaltyNanos);
+        } else if (start > 0) {
+            load.observe(System.nanoTime() - start);
+        }
+    }
+
+    private InstanceLoad load(ServiceInstance instance) {
+        String key = instance.getInstanceId() != null ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+        return loads.computeIfAbsent(key, k -> new InstanceLoad());
+    }
+
+    private final class InstanceLoad {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private double ewmaNanos;
+        private long updatedAt = System.nanoTime();
+
+        synchronized void observe(long rttNanos) {
+            long now = System.nanoTime();
+            double weight = Math.exp(-Math.max(0, now - updatedAt) / decayNanos);
+            ewmaNanos = rttNanos > ewmaNanos ? rttNanos : ewmaNanos * weight + rttNanos * (1 - weight);
+            updatedAt = now;
+        }
+
+        synchronized double cost() {
+            int pending = Math.max(0, inFlight.get());
+            if (ewmaNanos == 0) {
+                return pending == 0 ? 0 : UNMEASURED_PENALTY + pending;
+            }
+            // decayed over the time since the last response, so an idle instance's average drifts
+            // towards zero; worked out on each read rather than stored, so reading doesn't move it
+            double weight = Math.exp(-Math.max(0, System.nanoTime() - updatedAt) / decayNanos);
+            return ewmaNanos * weight * (pending + 1);
+        }
+    }
+}
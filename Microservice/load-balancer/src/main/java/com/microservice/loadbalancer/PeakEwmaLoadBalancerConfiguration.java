@@ -0,0 +1,35 @@
+package com.microservice.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load balancer for every service an application calls, registered through
+ * {@code @LoadBalancerClients(defaultConfiguration = ...)} and instantiated in each
+ * service's own load balancer context. Deliberately not a @Configuration, so
+ * component scanning doesn't also load it into the application context. Needs
+ * an InstanceLoadTracker bean in the application context.
+ *
+ * {prefix}.strategy=round-robin, with the tracker's property prefix, restores
+ * Spring Cloud's default for comparison.
+ */
+public class PeakEwmaLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(Environment environment,
+            LoadBalancerClientFactory loadBalancerClientFactory, InstanceLoadTracker tracker) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        ObjectProvider<ServiceInstanceListSupplier> instances =
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+        if ("round-robin".equals(environment.getProperty(tracker.getPropertyPrefix() + ".strategy"))) {
+            return new RoundRobinLoadBalancer(instances, serviceId);
+        }
+        return new PeakEwmaLoadBalancer(instances, serviceId, tracker);
+    }
+}
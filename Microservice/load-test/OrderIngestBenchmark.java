@@ -0,0 +1,89 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Inserts the same number of orders twice: once through POST /order/ with
+ * `concurrency` clients sending one order each, once through POST /order/bulk
+ * in chunks of `chunk`. Prints orders/s for both. Orders are spread over
+ * customerIds 1..customers, which must exist.
+ *
+ * Usage: java OrderIngestBenchmark.java <order-service url> [orders] [chunk] [concurrency] [customers]
+ *   java OrderIngestBenchmark.java http://localhost:9002 20000 1000 16 10
+ */
+public class OrderIngestBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args[0];
+        int orders = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        int chunk = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+        int customers = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger singleErrors = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                executor.submit(() -> {
+                    for (int n = next.getAndIncrement(); n < orders; n = next.getAndIncrement()) {
+                        if (post(client, baseUrl + "/order/", orderJson(n, customers)) >= 400) {
+                            singleErrors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        report("single POST /order/ x" + concurrency, orders, singleErrors.get(), System.nanoTime() - start);
+
+        int bulkErrors = 0;
+        start = System.nanoTime();
+        for (int from = 0; from < orders; from += chunk) {
+            List<String> body = new ArrayList<>();
+            for (int n = from; n < Math.min(orders, from + chunk); n++) {
+                body.add(orderJson(n, customers));
+            }
+            if (post(client, baseUrl + "/order/bulk", "[" + String.join(",", body) + "]") >= 400) {
+                bulkErrors += body.size();
+            }
+        }
+        report("POST /order/bulk chunk=" + chunk, orders, bulkErrors, System.nanoTime() - start);
+    }
+
+    private static String orderJson(int n, int customers) {
+        return "{\"orderName\":\"Ingest " + n + "\",\"orderAmount\":" + (n % 100 + 1)
+                + ".0,\"customerId\":" + (n % customers + 1) + "}";
+    }
+
+    private static int post(HttpClient client, String url, String json) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            return 599;
+        }
+    }
+
+    private static void report(String name, int orders, int errors, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%-32s orders=%d errors=%d time=%.2fs throughput=%.0f orders/s%n",
+                name, orders, errors, seconds, orders / seconds);
+    }
+}
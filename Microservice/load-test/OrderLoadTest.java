@@ -0,0 +1,89 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Closed-loop HTTP load generator: `concurrency` virtual threads each send GETs
+ * back to back for `seconds`, then throughput and latency percentiles are printed.
+ * The URL may contain {n}, replaced by 1..range per request.
+ *
+ * Usage: java OrderLoadTest.java <url> [concurrency] [seconds] [range]
+ *   java OrderLoadTest.java 'http://localhost:9002/order/withCustomer/{n}' 200 30 100
+ */
+public class OrderLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String url = args[0];
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int range = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+
+        // plain HTTP/1.1 keep-alive, no h2c upgrade attempts, so both servers see the same traffic
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> workers = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                int first = w;
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    for (int n = first; System.nanoTime() < deadline; n++) {
+                        String target = url.replace("{n}", Integer.toString(n % range + 1));
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(target))
+                                .timeout(Duration.ofSeconds(10))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+
+        List<long[]> perWorker = new ArrayList<>();
+        for (Future<long[]> worker : workers) {
+            perWorker.add(worker.get());
+        }
+        long[] all = perWorker.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%s concurrency=%d seconds=%d%n", url, concurrency, seconds);
+        System.out.printf("requests=%d errors=%d throughput=%.0f req/s%n",
+                all.length, errors.get(), all.length / (double) seconds);
+        System.out.printf("latency ms: p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), percentile(all, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,116 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Stand-in for customer-service with controllable misbehaviour, for exercising
+ * order-service's resilience (timeouts, bulkhead, circuit breaker, hedging)
+ * without the real service. Every customerId exists.
+ *
+ *   GET  /customer/{id}            one customer
+ *   POST /customer/batch           [ids] -> {id: customer}
+ *   POST /stub/config?delay=300&slow=0.5&fail=0.2
+ *        from now on a `slow` fraction of requests waits `delay` ms and a
+ *        `fail` fraction answers 503; omitted values are left as they are
+ *
+ * Point order-service at it without Eureka:
+ *   -Deureka.client.enabled=false
+ *   -Dspring.cloud.discovery.client.simple.instances.CUSTOMER-SERVICE[0].uri=http://localhost:9101
+ *
+ * Usage: java StubCustomerService.java <port> [delay-ms] [slow-fraction] [fail-fraction]
+ */
+public class StubCustomerService {
+
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+    private static volatile long delayMillis;
+    private static volatile double slowFraction;
+    private static volatile double failFraction;
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        delayMillis = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        slowFraction = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        failFraction = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/customer/", StubCustomerService::customer);
+        server.createContext("/stub/config", StubCustomerService::config);
+        server.start();
+        System.out.printf("stub customer-service on :%d delay=%dms slow=%.2f fail=%.2f%n",
+                port, delayMillis, slowFraction, failFraction);
+    }
+
+    private static void customer(HttpExchange exchange) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < slowFraction) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (random.nextDouble() < failFraction) {
+            respond(exchange, 503, "{\"error\":\"stubbed failure\"}");
+            return;
+        }
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/customer/batch") && exchange.getRequestMethod().equals("POST")) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            List<String> entries = new ArrayList<>();
+            Matcher ids = NUMBER.matcher(body);
+            while (ids.find()) {
+                entries.add("\"" + ids.group() + "\":" + customerJson(ids.group()));
+            }
+            respond(exchange, 200, "{" + String.join(",", entries) + "}");
+        } else if (path.matches("/customer/\\d+")) {
+            respond(exchange, 200, customerJson(path.substring("/customer/".length())));
+        } else {
+            respond(exchange, 404, "{}");
+        }
+    }
+
+    private static void config(HttpExchange exchange) throws IOException {
+        URI uri = exchange.getRequestURI();
+        if (uri.getQuery() != null) {
+            for (String param : uri.getQuery().split("&")) {
+                String[] pair = param.split("=", 2);
+                switch (pair[0]) {
+                    case "delay" -> delayMillis = Long.parseLong(pair[1]);
+                    case "slow" -> slowFraction = Double.parseDouble(pair[1]);
+                    case "fail" -> failFraction = Double.parseDouble(pair[1]);
+                    default -> {
+                    }
+                }
+            }
+        }
+        respond(exchange, 200, String.format("{\"delay\":%d,\"slow\":%.2f,\"fail\":%.2f}",
+                delayMillis, slowFraction, failFraction));
+    }
+
+    private static String customerJson(String id) {
+        return "{\"customerId\":" + id + ",\"firstName\":\"Stub\",\"lastName\":\"Customer" + id
+                + "\",\"email\":\"stub" + id + "@example.com\",\"phone\":null,\"address\":null}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
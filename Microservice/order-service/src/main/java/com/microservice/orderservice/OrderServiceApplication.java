@@ -1,21 +1,84 @@
 package com.microservice.orderservice;
 
+import com.microservice.loadbalancer.InstanceLoadTracker;
+import com.microservice.loadbalancer.PeakEwmaLoadBalancerConfiguration;
+import io.netty.channel.ChannelOption;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
 
 @SpringBootApplication
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
 public class OrderServiceApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(OrderServiceApplication.class, args);
     }
 
+    // per-instance load for PeakEwmaLoadBalancer and the hedge target, tuned under order.load-balancer.*
+    @Bean
+    public InstanceLoadTracker instanceLoadTracker(Environment environment) {
+        return new InstanceLoadTracker(environment, "order.load-balancer");
+    }
+
+    // Not @LoadBalanced: CustomerServiceClient picks instances itself so it can hedge to a second one.
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+            @Value("${order.aggregation.customer-timeout:1s}") Duration customerTimeout) {
+        // the socket timeout frees the virtual thread once ParallelCalls has given up waiting
+        return builder
+                .setConnectTimeout(customerTimeout)
+                .setReadTimeout(customerTimeout)
+                .build();
+    }
+
     @Bean
     @LoadBalanced
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public WebClient.Builder loadBalancedWebClientBuilder() {
+        return WebClient.builder();
+    }
+
+    // Tomcat is on the classpath for the servlet mode and Boot would prefer it; the reactive mode wants Netty's event loop.
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        // a burst of new connections shouldn't overflow the accept queue into SYN retries
+        factory.addServerCustomizers(server -> server.option(ChannelOption.SO_BACKLOG, 1024));
+        return factory;
+    }
+
+    // GET responses except the NDJSON listings; see Response Cache in the README
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                String accept = request.getHeader(HttpHeaders.ACCEPT);
+                return !HttpMethod.GET.matches(request.getMethod())
+                        || (accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE));
+            }
+        };
+        return new FilterRegistrationBean<>(filter);
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.microservice.orderservice.config;
+
+import com.microservice.orderservice.repository.OrderRepository;
+import com.microservice.orderservice.repository.ReactiveOrderRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+
+/**
+ * Both repository flavours live in the same package; each stack only scans its
+ * own, since Spring Data rejects a reactive repository in a JPA scan and vice versa.
+ */
+public class RepositoryConfig {
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @EnableJpaRepositories(basePackageClasses = OrderRepository.class,
+            excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveOrderRepository.class))
+    static class Jpa {
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @EnableR2dbcRepositories(basePackageClasses = ReactiveOrderRepository.class,
+            excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = OrderRepository.class))
+    static class R2dbc {
+    }
+}
@@ -0,0 +1,24 @@
+package com.microservice.orderservice.controller;
+
+import com.microservice.orderservice.service.CustomerCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Change notifications from customer-service; not routed through the api-gateway.
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/internal/customer-cache")
+@RequiredArgsConstructor
+public class CustomerCacheController {
+
+    private final CustomerCache customerCache;
+
+    @DeleteMapping("/{customerId}")
+    public ResponseEntity<Void> invalidate(@PathVariable("customerId") Long customerId) {
+        customerCache.invalidate(customerId);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
@@ -1,22 +1,37 @@
 package com.microservice.orderservice.controller;
 
 import com.microservice.orderservice.entity.Order;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.orderservice.service.BulkOrderService;
 import com.microservice.orderservice.service.OrderService;
+import com.microservice.orderservice.vo.OrderPage;
+import com.microservice.orderservice.vo.OrderStatusTotals;
+import com.microservice.orderservice.vo.OrderSummary;
 import com.microservice.orderservice.vo.ResponseTemplateVO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/order")
 @RequiredArgsConstructor
 public class OrderController {
 
     private final OrderService orderService;
+    private final BulkOrderService bulkOrderService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/")
     public ResponseEntity<Order> saveOrder(@RequestBody Order order) {
@@ -28,6 +43,18 @@ public class OrderController {
         }
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Long>> saveOrders(@RequestBody List<Order> orders) {
+        try {
+            List<Long> orderIds = bulkOrderService.saveOrders(orders);
+            return new ResponseEntity<>(orderIds, HttpStatus.CREATED);
+        } catch (ResponseStatusException e) {
+            return new ResponseEntity<>(e.getStatusCode());
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrderById(@PathVariable("id") Long orderId) {
         Optional<Order> order = orderService.getOrderById(orderId);
@@ -41,11 +68,49 @@ public class OrderController {
         return new ResponseEntity<>(orders, HttpStatus.OK);
     }
 
+    // Same listing as NDJSON, written row by row as it is read, for clients that ask for application/x-ndjson.
+    @GetMapping(value = "/", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        StreamingResponseBody body = out -> orderService.streamAllOrders(order -> writeLine(out, order));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<OrderPage> getOrderPage(@RequestParam(value = "after", defaultValue = "0") Long afterOrderId,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        OrderPage page = orderService.getOrderPage(afterOrderId, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
     @GetMapping("/withCustomer/{id}")
     public ResponseEntity<ResponseTemplateVO> getOrderWithCustomer(@PathVariable("id") Long orderId) {
         try {
             ResponseTemplateVO response = orderService.getOrderWithCustomer(orderId);
             return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (ResponseStatusException e) {
+            return new ResponseEntity<>(e.getStatusCode());
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @GetMapping(value = "/withCustomer", params = "ids")
+    public ResponseEntity<List<ResponseTemplateVO>> getOrdersWithCustomers(@RequestParam("ids") List<Long> orderIds) {
+        try {
+            List<ResponseTemplateVO> response = orderService.getOrdersWithCustomers(orderIds);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (ResponseStatusException e) {
+            return new ResponseEntity<>(e.getStatusCode());
+        }
+    }
+
+    @GetMapping("/customer/{customerId}/withCustomer")
+    public ResponseEntity<List<ResponseTemplateVO>> getOrdersWithCustomer(@PathVariable("customerId") Long customerId) {
+        try {
+            List<ResponseTemplateVO> response = orderService.getOrdersWithCustomer(customerId);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (ResponseStatusException e) {
+            return new ResponseEntity<>(e.getStatusCode());
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -57,6 +122,25 @@ public class OrderController {
         return new ResponseEntity<>(orders, HttpStatus.OK);
     }
 
+    @GetMapping("/customer/{customerId}/summary")
+    public ResponseEntity<List<OrderSummary>> getOrderSummariesByCustomerId(@PathVariable("customerId") Long customerId) {
+        List<OrderSummary> orders = orderService.getOrderSummariesByCustomerId(customerId);
+        return new ResponseEntity<>(orders, HttpStatus.OK);
+    }
+
+    @GetMapping("/status/{status}/summary")
+    public ResponseEntity<List<OrderSummary>> getOrderSummariesByStatus(@PathVariable("status") String orderStatus) {
+        List<OrderSummary> orders = orderService.getOrderSummariesByStatus(orderStatus);
+        return new ResponseEntity<>(orders, HttpStatus.OK);
+    }
+
+    @GetMapping("/stats/status")
+    public ResponseEntity<List<OrderStatusTotals>> getStatusTotals(
+            @RequestParam(value = "customerId", required = false) Long customerId) {
+        List<OrderStatusTotals> totals = orderService.getStatusTotals(customerId);
+        return new ResponseEntity<>(totals, HttpStatus.OK);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Order> updateOrder(@PathVariable("id") Long orderId,
             @RequestBody Order orderDetails) {
@@ -77,4 +161,13 @@ public class OrderController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.microservice.orderservice.controller;
+
+import com.microservice.orderservice.service.CustomerCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+// Same change notifications as CustomerCacheController, served by WebFlux when the reactive profile is active.
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/internal/customer-cache")
+@RequiredArgsConstructor
+public class ReactiveCustomerCacheController {
+
+    private final CustomerCache customerCache;
+
+    @DeleteMapping("/{customerId}")
+    public Mono<ResponseEntity<Void>> invalidate(@PathVariable("customerId") Long customerId) {
+        return Mono.fromRunnable(() -> customerCache.invalidate(customerId))
+                .thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+    }
+}
@@ -0,0 +1,114 @@
+package com.microservice.orderservice.controller;
+
+import com.microservice.orderservice.entity.Order;
+import com.microservice.orderservice.service.ReactiveOrderService;
+import com.microservice.orderservice.vo.OrderPage;
+import com.microservice.orderservice.vo.OrderStatusTotals;
+import com.microservice.orderservice.vo.OrderSummary;
+import com.microservice.orderservice.vo.ResponseTemplateVO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+// Same /order API as OrderController, served by WebFlux when the reactive profile is active.
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/order")
+@RequiredArgsConstructor
+public class ReactiveOrderController {
+
+    private final ReactiveOrderService orderService;
+
+    @PostMapping("/")
+    public Mono<ResponseEntity<Order>> saveOrder(@RequestBody Order order) {
+        return orderService.saveOrder(order)
+                .map(savedOrder -> new ResponseEntity<>(savedOrder, HttpStatus.CREATED))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST)));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Order>> getOrderById(@PathVariable("id") Long orderId) {
+        return found(orderService.getOrderById(orderId));
+    }
+
+    @GetMapping("/")
+    public Flux<Order> getAllOrders() {
+        return orderService.getAllOrders();
+    }
+
+    @GetMapping(value = "/", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Order> streamAllOrders() {
+        return orderService.getAllOrders();
+    }
+
+    @GetMapping("/page")
+    public Mono<ResponseEntity<OrderPage>> getOrderPage(@RequestParam(value = "after", defaultValue = "0") Long afterOrderId,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return orderService.getOrderPage(afterOrderId, limit)
+                .map(page -> new ResponseEntity<>(page, HttpStatus.OK));
+    }
+
+    @GetMapping("/withCustomer/{id}")
+    public Mono<ResponseEntity<ResponseTemplateVO>> getOrderWithCustomer(@PathVariable("id") Long orderId) {
+        return found(orderService.getOrderWithCustomer(orderId));
+    }
+
+    @GetMapping(value = "/withCustomer", params = "ids")
+    public Mono<ResponseEntity<List<ResponseTemplateVO>>> getOrdersWithCustomers(@RequestParam("ids") List<Long> orderIds) {
+        return found(orderService.getOrdersWithCustomers(orderIds).collectList());
+    }
+
+    @GetMapping("/customer/{customerId}/withCustomer")
+    public Mono<ResponseEntity<List<ResponseTemplateVO>>> getOrdersWithCustomer(@PathVariable("customerId") Long customerId) {
+        return found(orderService.getOrdersWithCustomer(customerId));
+    }
+
+    @GetMapping("/customer/{customerId}")
+    public Flux<Order> getOrdersByCustomerId(@PathVariable("customerId") Long customerId) {
+        return orderService.getOrdersByCustomerId(customerId);
+    }
+
+    @GetMapping("/customer/{customerId}/summary")
+    public Flux<OrderSummary> getOrderSummariesByCustomerId(@PathVariable("customerId") Long customerId) {
+        return orderService.getOrderSummariesByCustomerId(customerId);
+    }
+
+    @GetMapping("/status/{status}/summary")
+    public Flux<OrderSummary> getOrderSummariesByStatus(@PathVariable("status") String orderStatus) {
+        return orderService.getOrderSummariesByStatus(orderStatus);
+    }
+
+    @GetMapping("/stats/status")
+    public Flux<OrderStatusTotals> getStatusTotals(@RequestParam(value = "customerId", required = false) Long customerId) {
+        return orderService.getStatusTotals(customerId);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Order>> updateOrder(@PathVariable("id") Long orderId,
+            @RequestBody Order orderDetails) {
+        return found(orderService.updateOrder(orderId, orderDetails));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteOrder(@PathVariable("id") Long orderId) {
+        return orderService.deleteOrder(orderId)
+                .map(deleted -> new ResponseEntity<Void>(HttpStatus.NO_CONTENT))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND))
+                .onErrorResume(TimeoutException.class, e -> Mono.just(new ResponseEntity<>(HttpStatus.GATEWAY_TIMEOUT)));
+    }
+
+    // 200 with the body, 404 when empty, 504 when a dependency missed its deadline.
+    private static <T> Mono<ResponseEntity<T>> found(Mono<T> body) {
+        return body.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND))
+                .onErrorResume(TimeoutException.class, e -> Mono.just(new ResponseEntity<>(HttpStatus.GATEWAY_TIMEOUT)));
+    }
+}
@@ -7,15 +7,25 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+// Mapped for both stacks: JPA in the default (servlet) mode, Spring Data R2DBC in the reactive profile.
 @Entity
-@Table(name = "orders")
+// (customerId, orderDate) also serves lookups by customerId alone, so there is no separate index for it.
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_customer_id_order_date", columnList = "customerId, orderDate"),
+        @Index(name = "idx_orders_order_status", columnList = "orderStatus")
+})
+@org.springframework.data.relational.core.mapping.Table("orders")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @org.springframework.data.annotation.Id
+    // Sequence ids (handed out 50 at a time) rather than IDENTITY, so Hibernate can batch inserts.
+    // The reactive profile's schema keeps its own AUTO_INCREMENT column.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
     private Long orderId;
 
     @Column(nullable = false)
@@ -0,0 +1,9 @@
+package com.microservice.orderservice.exception;
+
+// customer-service couldn't answer: it failed, timed out, or the bulkhead or circuit breaker turned the call away.
+public class CustomerServiceUnavailableException extends RuntimeException {
+
+    public CustomerServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,10 +1,19 @@
 package com.microservice.orderservice.repository;
 
 import com.microservice.orderservice.entity.Order;
+import com.microservice.orderservice.vo.OrderStatusTotals;
+import com.microservice.orderservice.vo.OrderSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -12,4 +21,24 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByCustomerId(Long customerId);
 
     List<Order> findByOrderStatus(String orderStatus);
+
+    // Newest first, read in index order from idx_orders_customer_id_order_date.
+    List<OrderSummary> findSummariesByCustomerIdOrderByOrderDateDesc(Long customerId);
+
+    List<OrderSummary> findSummariesByOrderStatus(String orderStatus);
+
+    @Query("select new com.microservice.orderservice.vo.OrderStatusTotals(o.orderStatus, count(o), sum(o.orderAmount)) "
+            + "from Order o group by o.orderStatus order by o.orderStatus")
+    List<OrderStatusTotals> totalsByStatus();
+
+    @Query("select new com.microservice.orderservice.vo.OrderStatusTotals(o.orderStatus, count(o), sum(o.orderAmount)) "
+            + "from Order o where o.customerId = :customerId group by o.orderStatus order by o.orderStatus")
+    List<OrderStatusTotals> totalsByStatusForCustomer(@Param("customerId") Long customerId);
+
+    // Keyset page: a range scan on the primary key, equally cheap however deep the page is.
+    List<Order> findByOrderIdGreaterThanOrderByOrderIdAsc(Long orderId, Limit limit);
+
+    // Reads from an open JDBC cursor; must be consumed (and closed) inside a transaction.
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Order> streamAllByOrderByOrderIdAsc();
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.microservice.orderservice.repository;
+
+import com.microservice.orderservice.entity.Order;
+import com.microservice.orderservice.vo.OrderStatusTotals;
+import com.microservice.orderservice.vo.OrderSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// R2DBC counterpart of OrderRepository, used by the reactive profile.
+@Repository
+public interface ReactiveOrderRepository extends R2dbcRepository<Order, Long> {
+
+    Flux<Order> findByCustomerId(Long customerId);
+
+    Flux<Order> findByOrderStatus(String orderStatus);
+
+    Flux<Order> findByOrderIdGreaterThanOrderByOrderIdAsc(Long orderId, Limit limit);
+
+    Flux<OrderSummary> findSummariesByCustomerIdOrderByOrderDateDesc(Long customerId);
+
+    Flux<OrderSummary> findSummariesByOrderStatus(String orderStatus);
+
+    @Query("SELECT order_status, COUNT(*) AS order_count, SUM(order_amount) AS total_amount "
+            + "FROM orders GROUP BY order_status ORDER BY order_status")
+    Flux<OrderStatusTotals> totalsByStatus();
+
+    @Query("SELECT order_status, COUNT(*) AS order_count, SUM(order_amount) AS total_amount "
+            + "FROM orders WHERE customer_id = :customerId GROUP BY order_status ORDER BY order_status")
+    Flux<OrderStatusTotals> totalsByStatusForCustomer(@Param("customerId") Long customerId);
+}
@@ -0,0 +1,104 @@
+package com.microservice.orderservice.service;
+
+import com.microservice.orderservice.entity.Order;
+import com.microservice.orderservice.exception.CustomerServiceUnavailableException;
+import com.microservice.orderservice.vo.Customer;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Inserts many orders in one transaction using JDBC batches.
+ *
+ * Every distinct customerId is checked up front through CustomerLoader, so the
+ * whole request costs a few /customer/batch calls (or none, from the near
+ * cache) and no DB connection is held while they run. Order ids come from a
+ * pooled sequence, so Hibernate can batch the inserts
+ * (spring.jpa.properties.hibernate.jdbc.batch_size). The persistence context is
+ * flushed and cleared after every batch so it doesn't grow with the request.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BulkOrderService {
+
+    private final CustomerLoader customerLoader;
+    private final ParallelCalls parallelCalls;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxOrders;
+    private final Duration customerTimeout;
+
+    public BulkOrderService(CustomerLoader customerLoader, ParallelCalls parallelCalls, EntityManager entityManager,
+            TransactionTemplate transactionTemplate,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+            @Value("${order.bulk.max-orders:10000}") int maxOrders,
+            @Value("${order.aggregation.customer-timeout:1s}") Duration customerTimeout) {
+        this.customerLoader = customerLoader;
+        this.parallelCalls = parallelCalls;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxOrders = maxOrders;
+        this.customerTimeout = customerTimeout;
+    }
+
+    // Returns the new orderIds in request order. All or nothing: any unknown customerId rejects the whole request.
+    public List<Long> saveOrders(List<Order> orders) {
+        if (orders.isEmpty() || orders.size() > maxOrders) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A bulk request takes 1 to " + maxOrders + " orders, got " + orders.size());
+        }
+        if (orders.stream().anyMatch(order -> order.getCustomerId() == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Every order needs a customerId");
+        }
+        checkCustomersExist(orders);
+
+        return transactionTemplate.execute(status -> {
+            List<Long> orderIds = new ArrayList<>(orders.size());
+            for (int i = 0; i < orders.size(); i++) {
+                Order order = orders.get(i);
+                order.setOrderId(null);
+                entityManager.persist(order);
+                orderIds.add(order.getOrderId());
+                if ((i + 1) % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            return orderIds;
+        });
+    }
+
+    private void checkCustomersExist(List<Order> orders) {
+        Set<Long> customerIds = orders.stream()
+                .map(Order::getCustomerId)
+                .collect(Collectors.toSet());
+        Map<Long, Customer> customers;
+        try {
+            customers = parallelCalls.join(
+                    parallelCalls.within(customerLoader.loadAll(customerIds), customerTimeout), "Customer lookup");
+        } catch (CustomerServiceUnavailableException e) {
+            // unlike reads, inserts can't go ahead unchecked
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+        Set<Long> unknown = customerIds.stream()
+                .filter(customerId -> !customers.containsKey(customerId))
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (!unknown.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown customerIds: " + unknown);
+        }
+    }
+}
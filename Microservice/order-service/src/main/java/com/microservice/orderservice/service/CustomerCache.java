@@ -0,0 +1,73 @@
+package com.microservice.orderservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservice.orderservice.vo.Customer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near cache of Customer VOs, bounded by size (W-TinyLFU eviction) and by age.
+ *
+ * customer-service calls DELETE /internal/customer-cache/{id} on every
+ * order-service instance when a customer is updated or deleted; the TTL only
+ * bounds staleness when such a notification is lost.
+ */
+@Component
+public class CustomerCache {
+
+    private final Cache<Long, Customer> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter invalidationCounter;
+
+    public CustomerCache(MeterRegistry registry,
+            @Value("${order.customer-cache.maximum-size:10000}") long maximumSize,
+            @Value("${order.customer-cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size, ...
+        CaffeineCacheMetrics.monitor(registry, cache, "customers");
+        Gauge.builder("customer.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of customer lookups served from the near cache")
+                .register(registry);
+        this.invalidationCounter = Counter.builder("customer.cache.invalidations")
+                .description("Change notifications received from customer-service")
+                .register(registry);
+    }
+
+    public Customer get(Long customerId) {
+        return cache.getIfPresent(customerId);
+    }
+
+    /**
+     * Version to pass to putIfCurrent. Taken before a fetch starts, it lets the
+     * fetch's result be dropped if an invalidation arrived while it was running.
+     */
+    public long version() {
+        return invalidations.get();
+    }
+
+    public void putIfCurrent(Customer customer, long version) {
+        cache.put(customer.getCustomerId(), customer);
+        // an invalidation may have raced the put: undo it rather than keep a stale entry
+        if (invalidations.get() != version) {
+            cache.invalidate(customer.getCustomerId());
+        }
+    }
+
+    public void invalidate(Long customerId) {
+        invalidations.incrementAndGet();
+        invalidationCounter.increment();
+        cache.invalidate(customerId);
+    }
+}
@@ -0,0 +1,205 @@
+package com.microservice.orderservice.service;
+
+import com.microservice.orderservice.vo.Customer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * DataLoader-style client for CUSTOMER-SERVICE, behind the CustomerCache near cache.
+ *
+ * A cache miss for a customer that is already being fetched joins that fetch
+ * instead of making its own call. New ids are collected for up to
+ * order.customer-loader.window (or until max-batch-size ids are waiting) and
+ * then fetched together with one POST /customer/batch.
+ *
+ * Futures complete with null for customers that don't exist.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CustomerLoader implements DisposableBean {
+
+    private final CustomerServiceClient customerServiceClient;
+    private final CustomerCache cache;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ExecutorService fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService windowTimer = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "customer-loader-window");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // one future per customer between enqueue and the end of its fetch
+    private final Map<Long, CompletableFuture<Customer>> inFlight = new ConcurrentHashMap<>();
+
+    // ReentrantLock rather than synchronized so callers on virtual threads don't pin their carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<Long, CompletableFuture<Customer>> pending = new HashMap<>(); // guarded by lock
+    private long pendingSince; // guarded by lock
+    private long generation; // guarded by lock, bumped on every dispatch
+
+    private final Counter lookups;
+    private final Counter coalesced;
+    private final Counter fetched;
+    private final DistributionSummary batchSize;
+    private final Timer batchWait;
+
+    public CustomerLoader(CustomerServiceClient customerServiceClient, CustomerCache cache, MeterRegistry registry,
+            @Value("${order.customer-loader.window:2ms}") Duration window,
+            @Value("${order.customer-loader.max-batch-size:100}") int maxBatchSize) {
+        this.customerServiceClient = customerServiceClient;
+        this.cache = cache;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.lookups = Counter.builder("customer.loader.lookups")
+                .description("Customer lookups that missed the near cache")
+                .register(registry);
+        this.coalesced = Counter.builder("customer.loader.coalesced")
+                .description("Lookups that joined a fetch already in flight")
+                .register(registry);
+        this.fetched = Counter.builder("customer.loader.fetched")
+                .description("Customer ids sent to CUSTOMER-SERVICE")
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("customer.loader.batch.size")
+                .description("Customer ids per batch call")
+                .register(registry);
+        this.batchWait = Timer.builder("customer.loader.batch.wait")
+                .description("Latency added by batching: how long the oldest lookup in a batch waited")
+                .register(registry);
+        Gauge.builder("customer.loader.coalescing.ratio", this, CustomerLoader::coalescingRatio)
+                .description("Lookups per customer id actually fetched")
+                .register(registry);
+    }
+
+    public CompletableFuture<Customer> load(Long customerId) {
+        Customer cached = cache.get(customerId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        lookups.increment();
+        CompletableFuture<Customer> created = new CompletableFuture<>();
+        CompletableFuture<Customer> existing = inFlight.putIfAbsent(customerId, created);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy();
+        }
+        enqueue(customerId, created);
+        // callers get a copy so a caller's orTimeout can't fail the shared future for everyone else
+        return created.copy();
+    }
+
+    public CompletableFuture<Map<Long, Customer>> loadAll(Collection<Long> customerIds) {
+        Map<Long, CompletableFuture<Customer>> loads = new HashMap<>();
+        for (Long customerId : new LinkedHashSet<>(customerIds)) {
+            loads.put(customerId, load(customerId));
+        }
+        return CompletableFuture.allOf(loads.values().toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    Map<Long, Customer> customers = new HashMap<>();
+                    loads.forEach((customerId, load) -> {
+                        Customer customer = load.join();
+                        if (customer != null) {
+                            customers.put(customerId, customer);
+                        }
+                    });
+                    return customers;
+                });
+    }
+
+    private void enqueue(Long customerId, CompletableFuture<Customer> future) {
+        Map<Long, CompletableFuture<Customer>> batch = null;
+        long since;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                pendingSince = System.nanoTime();
+                if (windowNanos > 0) {
+                    long scheduledFor = generation;
+                    windowTimer.schedule(() -> flush(scheduledFor), windowNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            pending.put(customerId, future);
+            since = pendingSince;
+            if (pending.size() >= maxBatchSize || windowNanos <= 0) {
+                batch = takePending();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (batch != null) {
+            dispatch(batch, since);
+        }
+    }
+
+    // Window expiry; a no-op if the batch it was armed for already went out because it filled up.
+    private void flush(long scheduledFor) {
+        Map<Long, CompletableFuture<Customer>> batch;
+        long since;
+        lock.lock();
+        try {
+            if (generation != scheduledFor || pending.isEmpty()) {
+                return;
+            }
+            since = pendingSince;
+            batch = takePending();
+        } finally {
+            lock.unlock();
+        }
+        dispatch(batch, since);
+    }
+
+    private Map<Long, CompletableFuture<Customer>> takePending() {
+        Map<Long, CompletableFuture<Customer>> batch = pending;
+        pending = new HashMap<>();
+        generation++;
+        return batch;
+    }
+
+    private void dispatch(Map<Long, CompletableFuture<Customer>> batch, long since) {
+        batchWait.record(System.nanoTime() - since, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+        fetched.increment(batch.size());
+        long cacheVersion = cache.version();
+        fetchExecutor.execute(() -> {
+            try {
+                Map<Long, Customer> customers = customerServiceClient.getCustomers(batch.keySet());
+                customers.values().forEach(customer -> cache.putIfCurrent(customer, cacheVersion));
+                batch.forEach((customerId, future) -> future.complete(customers.get(customerId)));
+            } catch (RuntimeException e) {
+                batch.values().forEach(future -> future.completeExceptionally(e));
+            } finally {
+                batch.forEach(inFlight::remove);
+            }
+        });
+    }
+
+    private double coalescingRatio() {
+        double ids = fetched.count();
+        return ids == 0 ? 1.0 : lookups.count() / ids;
+    }
+
+    @Override
+    public void destroy() {
+        windowTimer.shutdownNow();
+        fetchExecutor.shutdownNow();
+    }
+}
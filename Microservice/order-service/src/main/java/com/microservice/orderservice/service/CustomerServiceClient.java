@@ -0,0 +1,288 @@
+package com.microservice.orderservice.service;
+
+import com.microservice.loadbalancer.InstanceLoadTracker;
+import com.microservice.orderservice.exception.CustomerServiceUnavailableException;
+import com.microservice.orderservice.vo.Customer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerRequest;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The call from order-service to CUSTOMER-SERVICE's /customer/batch, guarded so
+ * a slow or failing customer-service can't tie up order-service with it.
+ *
+ * - Bulkhead: at most max-concurrent-calls calls in flight; callers beyond that
+ *   wait up to max-wait, then are turned away.
+ * - Circuit breaker: opens when the failure rate or the slow-call rate over the
+ *   last sliding-window calls passes its threshold, and turns calls away until
+ *   it half-opens to probe. Each time it reopens it stays open twice as long,
+ *   up to max-open-duration.
+ * - Hedging: if the instance the load balancer picked hasn't answered within
+ *   the recent p95 latency, the same request goes to the least loaded other
+ *   instance and the first answer wins. Needs at least two instances; off with
+ *   hedge.enabled=false.
+ *
+ * Every way of not getting an answer surfaces as CustomerServiceUnavailableException.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CustomerServiceClient implements DisposableBean {
+
+    private static final String SERVICE_ID = "CUSTOMER-SERVICE";
+    private static final ParameterizedTypeReference<Map<Long, Customer>> CUSTOMER_MAP =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final RestTemplate restTemplate;
+    private final LoadBalancerClient loadBalancerClient;
+    private final DiscoveryClient discoveryClient;
+    private final InstanceLoadTracker instanceLoadTracker;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final boolean hedgeEnabled;
+    private final Duration minHedgeDelay;
+    private final Duration maxHedgeDelay;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Timer latency;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+
+    public CustomerServiceClient(RestTemplate restTemplate, LoadBalancerClient loadBalancerClient,
+            DiscoveryClient discoveryClient, InstanceLoadTracker instanceLoadTracker, MeterRegistry registry,
+            @Value("${order.customer-resilience.bulkhead.max-concurrent-calls:25}") int maxConcurrentCalls,
+            @Value("${order.customer-resilience.bulkhead.max-wait:10ms}") Duration maxWait,
+            @Value("${order.customer-resilience.circuit-breaker.sliding-window:50}") int slidingWindow,
+            @Value("${order.customer-resilience.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${order.customer-resilience.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${order.customer-resilience.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+            @Value("${order.customer-resilience.circuit-breaker.slow-call-duration:500ms}") Duration slowCallDuration,
+            @Value("${order.customer-resilience.circuit-breaker.open-duration:5s}") Duration openDuration,
+            @Value("${order.customer-resilience.circuit-breaker.max-open-duration:1m}") Duration maxOpenDuration,
+            @Value("${order.customer-resilience.circuit-breaker.half-open-calls:5}") int halfOpenCalls,
+            @Value("${order.customer-resilience.hedge.enabled:true}") boolean hedgeEnabled,
+            @Value("${order.customer-resilience.hedge.min-delay:20ms}") Duration minHedgeDelay,
+            @Value("${order.aggregation.customer-timeout:1s}") Duration customerTimeout) {
+        this.restTemplate = restTemplate;
+        this.loadBalancerClient = loadBalancerClient;
+        this.discoveryClient = discoveryClient;
+        this.instanceLoadTracker = instanceLoadTracker;
+        this.hedgeEnabled = hedgeEnabled;
+        this.minHedgeDelay = minHedgeDelay;
+        this.maxHedgeDelay = customerTimeout;
+
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWait)
+                .build());
+        this.bulkhead = bulkheads.bulkhead("customer-service");
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(registry);
+
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindow)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .waitIntervalFunctionInOpenState(IntervalFunction.ofExponentialBackoff(openDuration, 2, maxOpenDuration))
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .build());
+        this.circuitBreaker = circuitBreakers.circuitBreaker("customer-service");
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(registry);
+
+        this.latency = Timer.builder("customer.client.latency")
+                .description("Latency of single customer-service calls; its p95 is the hedging delay")
+                .publishPercentiles(0.95)
+                .distributionStatisticExpiry(Duration.ofSeconds(30))
+                .register(registry);
+        this.hedges = Counter.builder("customer.client.hedges")
+                .description("Calls that were hedged to a second instance")
+                .register(registry);
+        this.hedgeWins = Counter.builder("customer.client.hedge.wins")
+                .description("Hedged calls answered first by the second instance")
+                .register(registry);
+    }
+
+    // Customers by id, as returned by POST /customer/batch; unknown ids are absent.
+    public Map<Long, Customer> getCustomers(Collection<Long> customerIds) {
+        try {
+            // bulkhead outside the breaker: being turned away by our own bulkhead is not a customer-service failure
+            return bulkhead.executeSupplier(() -> circuitBreaker.executeSupplier(() -> hedgedCall(customerIds)));
+        } catch (RuntimeException e) {
+            throw new CustomerServiceUnavailableException("Customer lookup failed: " + e.getMessage(), e);
+        }
+    }
+
+    private Map<Long, Customer> hedgedCall(Collection<Long> customerIds) {
+        ServiceInstance primary = loadBalancerClient.choose(SERVICE_ID);
+        if (primary == null) {
+            throw new IllegalStateException("No instances available for " + SERVICE_ID);
+        }
+        CompletableFuture<Map<Long, Customer>> primaryCall = callAsync(primary, customerIds);
+        ServiceInstance secondary = hedgeEnabled ? otherInstance(primary) : null;
+        if (secondary == null) {
+            return await(primaryCall);
+        }
+        try {
+            return primaryCall.get(hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // slower than usual: ask another instance too
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for " + SERVICE_ID, e);
+        }
+        hedges.increment();
+        CompletableFuture<Map<Long, Customer>> hedgeCall = callAsync(secondary, customerIds);
+        hedgeCall.thenRun(() -> {
+            if (!primaryCall.isDone()) {
+                hedgeWins.increment();
+            }
+        });
+        return await(firstSuccessful(primaryCall, hedgeCall));
+    }
+
+    private CompletableFuture<Map<Long, Customer>> callAsync(ServiceInstance instance, Collection<Long> customerIds) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                // through the LoadBalancerClient so load balancer lifecycle hooks see the call
+                return loadBalancerClient.execute(SERVICE_ID, instance, new BatchRequest(customerIds));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }, executor);
+    }
+
+    private ServiceInstance otherInstance(ServiceInstance primary) {
+        return discoveryClient.getInstances(SERVICE_ID).stream()
+                .filter(instance -> !sameInstance(instance, primary))
+                .min(Comparator.comparingDouble(instanceLoadTracker::cost))
+                .orElse(null);
+    }
+
+    private static boolean sameInstance(ServiceInstance a, ServiceInstance b) {
+        if (a.getInstanceId() != null && b.getInstanceId() != null) {
+            return a.getInstanceId().equals(b.getInstanceId());
+        }
+        return Objects.equals(a.getUri(), b.getUri());
+    }
+
+    // The recent p95 latency, kept between min-delay and the customer deadline.
+    private long hedgeDelayNanos() {
+        ValueAtPercentile[] percentiles = latency.takeSnapshot().percentileValues();
+        double p95 = percentiles.length > 0 ? percentiles[0].value(TimeUnit.NANOSECONDS) : 0;
+        return Math.min(maxHedgeDelay.toNanos(), Math.max(minHedgeDelay.toNanos(), (long) p95));
+    }
+
+    // Completes with the first result; fails only once every call has failed.
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> call : List.of(first, second)) {
+            call.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+        return result;
+    }
+
+    private static <T> T await(CompletableFuture<T> call) {
+        try {
+            return call.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for " + SERVICE_ID, e);
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    /**
+     * POST /customer/batch as a load balancer request. It is also a Request with
+     * a context of its own because LoadBalancerClient.execute() otherwise hands the
+     * lifecycle hooks a context-less request, which InstanceLoadTracker can't time.
+     */
+    private final class BatchRequest implements LoadBalancerRequest<Map<Long, Customer>>, Request<DefaultRequestContext> {
+
+        private final Collection<Long> customerIds;
+        private final DefaultRequestContext context = new DefaultRequestContext();
+
+        BatchRequest(Collection<Long> customerIds) {
+            this.customerIds = customerIds;
+        }
+
+        @Override
+        public DefaultRequestContext getContext() {
+            return context;
+        }
+
+        @Override
+        public Map<Long, Customer> apply(ServiceInstance target) {
+            Map<Long, Customer> customers = restTemplate.exchange(target.getUri() + "/customer/batch",
+                    HttpMethod.POST, new HttpEntity<>(customerIds), CUSTOMER_MAP).getBody();
+            return customers != null ? customers : Map.of();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
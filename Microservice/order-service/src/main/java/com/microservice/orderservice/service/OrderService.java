@@ -1,22 +1,65 @@
 package com.microservice.orderservice.service;
 
 import com.microservice.orderservice.entity.Order;
+import com.microservice.orderservice.exception.CustomerServiceUnavailableException;
 import com.microservice.orderservice.repository.OrderRepository;
 import com.microservice.orderservice.vo.Customer;
+import com.microservice.orderservice.vo.OrderPage;
+import com.microservice.orderservice.vo.OrderStatusTotals;
+import com.microservice.orderservice.vo.OrderSummary;
 import com.microservice.orderservice.vo.ResponseTemplateVO;
-import lombok.RequiredArgsConstructor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.QueryTimeoutException;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final RestTemplate restTemplate;
+    private final CustomerLoader customerLoader;
+    private final ParallelCalls parallelCalls;
+    private final EntityManager entityManager;
+    private final Duration orderTimeout;
+    private final int orderTimeoutSeconds; // JDBC statement timeouts are whole seconds, so rounded up
+    private final Duration customerTimeout;
+    private final int maxPageSize;
+
+    public OrderService(OrderRepository orderRepository, CustomerLoader customerLoader, ParallelCalls parallelCalls,
+            EntityManager entityManager,
+            @Value("${order.aggregation.order-timeout:500ms}") Duration orderTimeout,
+            @Value("${order.aggregation.customer-timeout:1s}") Duration customerTimeout,
+            @Value("${order.listing.max-page-size:1000}") int maxPageSize) {
+        this.orderRepository = orderRepository;
+        this.customerLoader = customerLoader;
+        this.parallelCalls = parallelCalls;
+        this.entityManager = entityManager;
+        this.orderTimeout = orderTimeout;
+        this.orderTimeoutSeconds = (int) Math.max(1, (orderTimeout.toMillis() + 999) / 1000);
+        this.customerTimeout = customerTimeout;
+        this.maxPageSize = maxPageSize;
+    }
 
     public Order saveOrder(Order order) {
         return orderRepository.save(order);
@@ -30,25 +73,144 @@ public class OrderService {
         return orderRepository.findAll();
     }
 
+    // Orders with orderId > afterOrderId; the page size is clamped to 1..max-page-size.
+    public OrderPage getOrderPage(Long afterOrderId, int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        return OrderPage.of(orderRepository.findByOrderIdGreaterThanOrderByOrderIdAsc(afterOrderId, Limit.of(size + 1)),
+                size);
+    }
+
+    /**
+     * Hands every order, in orderId order, to the consumer one row at a time.
+     * Each order is detached once consumed, so neither the persistence context
+     * nor the heap grows with the table.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllOrders(Consumer<Order> consumer) {
+        try (Stream<Order> orders = orderRepository.streamAllByOrderByOrderIdAsc()) {
+            orders.forEach(order -> {
+                consumer.accept(order);
+                entityManager.detach(order);
+            });
+        }
+    }
+
+    /**
+     * The order with its customer. If customer-service can't answer (down, slow,
+     * or cut off by the circuit breaker or bulkhead) the order comes back alone,
+     * marked degraded, rather than the request failing.
+     */
     public ResponseTemplateVO getOrderWithCustomer(Long orderId) {
-        ResponseTemplateVO vo = new ResponseTemplateVO();
-        Order order = orderRepository.findById(orderId)
+        // The customer call needs the order's customerId, so there is nothing to overlap:
+        // both run on the request thread, each with its own deadline.
+        Order order = findOrders(List.of(orderId)).stream().findFirst()
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
 
-        // Call Customer Service using RestTemplate
-        Customer customer = restTemplate.getForObject(
-                "http://CUSTOMER-SERVICE/customer/" + order.getCustomerId(),
-                Customer.class);
+        try {
+            return new ResponseTemplateVO(order, loadCustomer(order.getCustomerId()));
+        } catch (CustomerServiceUnavailableException e) {
+            return ResponseTemplateVO.degraded(order);
+        }
+    }
+
+    /**
+     * Orders for the given ids, each with its customer. The distinct customerIds go
+     * through CustomerLoader together, so they share batch calls rather than one call per order.
+     * Results follow the order of ids; unknown ids are skipped. Degrades like
+     * getOrderWithCustomer.
+     */
+    public List<ResponseTemplateVO> getOrdersWithCustomers(Collection<Long> orderIds) {
+        Set<Long> ids = new LinkedHashSet<>(orderIds);
+        Map<Long, Order> orders = findOrders(ids).stream()
+                .collect(Collectors.toMap(Order::getOrderId, Function.identity()));
+
+        Set<Long> customerIds = orders.values().stream()
+                .map(Order::getCustomerId)
+                .collect(Collectors.toSet());
+        Map<Long, Customer> customers;
+        try {
+            customers = awaitCustomers(customerLoader.loadAll(customerIds));
+        } catch (CustomerServiceUnavailableException e) {
+            customers = null;
+        }
+
+        Map<Long, Customer> found = customers;
+        return ids.stream()
+                .map(orders::get)
+                .filter(Objects::nonNull)
+                .map(order -> found == null ? ResponseTemplateVO.degraded(order)
+                        : new ResponseTemplateVO(order, found.get(order.getCustomerId())))
+                .toList();
+    }
+
+    // The customer and their orders don't depend on each other, so both calls run at once.
+    public List<ResponseTemplateVO> getOrdersWithCustomer(Long customerId) {
+        CompletableFuture<List<Order>> ordersCall = parallelCalls.fork(
+                () -> orderRepository.findByCustomerId(customerId), orderTimeout);
+        Customer customer;
+        try {
+            customer = loadCustomer(customerId);
+        } catch (CustomerServiceUnavailableException e) {
+            customer = null;
+        }
+        List<Order> orders = parallelCalls.join(ordersCall, "Order lookup");
 
-        vo.setOrder(order);
-        vo.setCustomer(customer);
-        return vo;
+        Customer found = customer;
+        return orders.stream()
+                .map(order -> found == null ? ResponseTemplateVO.degraded(order) : new ResponseTemplateVO(order, found))
+                .toList();
+    }
+
+    // The orders with these ids, looked up on the calling thread under the order deadline.
+    private List<Order> findOrders(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return entityManager.createQuery("select o from Order o where o.orderId in :ids", Order.class)
+                    .setParameter("ids", orderIds)
+                    .setHint(AvailableHints.HINT_TIMEOUT, orderTimeoutSeconds)
+                    .getResultList();
+        } catch (QueryTimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Order lookup timed out");
+        }
+    }
+
+    private Customer loadCustomer(Long customerId) {
+        Customer customer = awaitCustomers(customerLoader.load(customerId));
+        if (customer == null) {
+            throw new RuntimeException("Customer not found with id: " + customerId);
+        }
+        return customer;
+    }
+
+    // A CustomerLoader result within the customer deadline; missing the deadline counts as customer-service unavailable.
+    private <T> T awaitCustomers(CompletableFuture<T> lookup) {
+        try {
+            return parallelCalls.join(parallelCalls.within(lookup, customerTimeout), "Customer lookup");
+        } catch (ResponseStatusException e) {
+            throw new CustomerServiceUnavailableException(e.getReason(), e);
+        }
     }
 
     public List<Order> getOrdersByCustomerId(Long customerId) {
         return orderRepository.findByCustomerId(customerId);
     }
 
+    public List<OrderSummary> getOrderSummariesByCustomerId(Long customerId) {
+        return orderRepository.findSummariesByCustomerIdOrderByOrderDateDesc(customerId);
+    }
+
+    public List<OrderSummary> getOrderSummariesByStatus(String orderStatus) {
+        return orderRepository.findSummariesByOrderStatus(orderStatus);
+    }
+
+    // Per-status count and total amount, for one customer or (customerId null) for all orders.
+    public List<OrderStatusTotals> getStatusTotals(Long customerId) {
+        return customerId == null ? orderRepository.totalsByStatus()
+                : orderRepository.totalsByStatusForCustomer(customerId);
+    }
+
     public Order updateOrder(Long orderId, Order orderDetails) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
@@ -0,0 +1,61 @@
+package com.microservice.orderservice.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking calls (JPA, RestTemplate) on virtual threads so independent
+ * calls overlap, each with its own deadline. A request then waits for its
+ * slowest dependency instead of the sum of all of them.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ParallelCalls implements DisposableBean {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public <T> CompletableFuture<T> fork(Supplier<T> call, Duration timeout) {
+        return CompletableFuture.supplyAsync(call, executor)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Puts a deadline on a call that is already running elsewhere (e.g. a CustomerLoader batch).
+    public <T> CompletableFuture<T> within(CompletableFuture<T> call, Duration timeout) {
+        return call.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Waits for a forked call. A timeout becomes 504 GATEWAY_TIMEOUT; any other
+     * failure is rethrown as the call threw it.
+     */
+    public <T> T join(CompletableFuture<T> call, String name) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, name + " timed out");
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
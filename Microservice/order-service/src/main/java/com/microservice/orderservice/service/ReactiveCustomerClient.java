@@ -0,0 +1,88 @@
+package com.microservice.orderservice.service;
+
+import com.microservice.orderservice.vo.Customer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non-blocking CUSTOMER-SERVICE client for the reactive profile, sharing the
+ * CustomerCache near cache with the servlet stack. Unknown customers come back
+ * as an empty Mono.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCustomerClient {
+
+    private static final ParameterizedTypeReference<Map<Long, Customer>> CUSTOMER_MAP =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient webClient;
+    private final CustomerCache cache;
+    private final Duration customerTimeout;
+
+    public ReactiveCustomerClient(WebClient.Builder loadBalancedWebClientBuilder, CustomerCache cache,
+            @Value("${order.aggregation.customer-timeout:1s}") Duration customerTimeout) {
+        this.webClient = loadBalancedWebClientBuilder.baseUrl("http://CUSTOMER-SERVICE").build();
+        this.cache = cache;
+        this.customerTimeout = customerTimeout;
+    }
+
+    public Mono<Customer> getCustomer(Long customerId) {
+        Customer cached = cache.get(customerId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return Mono.defer(() -> {
+            long cacheVersion = cache.version();
+            return webClient.get()
+                    .uri("/customer/{id}", customerId)
+                    .retrieve()
+                    .bodyToMono(Customer.class)
+                    .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                    .doOnNext(customer -> cache.putIfCurrent(customer, cacheVersion));
+        }).timeout(customerTimeout);
+    }
+
+    // One /customer/batch call for the ids not already cached.
+    public Mono<Map<Long, Customer>> getCustomers(Collection<Long> customerIds) {
+        Map<Long, Customer> customers = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long customerId : customerIds) {
+            Customer cached = cache.get(customerId);
+            if (cached != null) {
+                customers.put(customerId, cached);
+            } else {
+                missing.add(customerId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return Mono.just(customers);
+        }
+        return Mono.defer(() -> {
+            long cacheVersion = cache.version();
+            return webClient.post()
+                    .uri("/customer/batch")
+                    .bodyValue(missing)
+                    .retrieve()
+                    .bodyToMono(CUSTOMER_MAP)
+                    .map(fetched -> {
+                        fetched.values().forEach(customer -> cache.putIfCurrent(customer, cacheVersion));
+                        customers.putAll(fetched);
+                        return customers;
+                    });
+        }).timeout(customerTimeout);
+    }
+}
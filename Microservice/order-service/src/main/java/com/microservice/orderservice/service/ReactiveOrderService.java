@@ -0,0 +1,130 @@
+package com.microservice.orderservice.service;
+
+import com.microservice.orderservice.entity.Order;
+import com.microservice.orderservice.repository.ReactiveOrderRepository;
+import com.microservice.orderservice.vo.OrderPage;
+import com.microservice.orderservice.vo.OrderStatusTotals;
+import com.microservice.orderservice.vo.OrderSummary;
+import com.microservice.orderservice.vo.ResponseTemplateVO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * OrderService for the reactive profile: R2DBC for orders, WebClient for
+ * customers, nothing blocks. Not-found cases are empty Monos; a missed
+ * aggregation deadline is a TimeoutException.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOrderService {
+
+    private final ReactiveOrderRepository orderRepository;
+    private final ReactiveCustomerClient customerClient;
+    private final Duration orderTimeout;
+    private final int maxPageSize;
+
+    public ReactiveOrderService(ReactiveOrderRepository orderRepository, ReactiveCustomerClient customerClient,
+            @Value("${order.aggregation.order-timeout:500ms}") Duration orderTimeout,
+            @Value("${order.listing.max-page-size:1000}") int maxPageSize) {
+        this.orderRepository = orderRepository;
+        this.customerClient = customerClient;
+        this.orderTimeout = orderTimeout;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public Mono<Order> saveOrder(Order order) {
+        // no JPA lifecycle here, so apply the entity's defaults by hand
+        order.prePersist();
+        return orderRepository.save(order);
+    }
+
+    public Mono<Order> getOrderById(Long orderId) {
+        return orderRepository.findById(orderId);
+    }
+
+    // Rows are emitted as R2DBC reads them, so this already streams with backpressure.
+    public Flux<Order> getAllOrders() {
+        return orderRepository.findAll();
+    }
+
+    public Mono<OrderPage> getOrderPage(Long afterOrderId, int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        return orderRepository.findByOrderIdGreaterThanOrderByOrderIdAsc(afterOrderId, Limit.of(size + 1))
+                .collectList()
+                .map(orders -> OrderPage.of(orders, size));
+    }
+
+    public Mono<ResponseTemplateVO> getOrderWithCustomer(Long orderId) {
+        // As in OrderService, only the aggregation calls carry deadlines.
+        return orderRepository.findById(orderId).timeout(orderTimeout)
+                .flatMap(order -> customerClient.getCustomer(order.getCustomerId())
+                        .map(customer -> new ResponseTemplateVO(order, customer)));
+    }
+
+    // Same contract as OrderService.getOrdersWithCustomers: requested order, one batch call for customers.
+    public Flux<ResponseTemplateVO> getOrdersWithCustomers(Collection<Long> orderIds) {
+        Set<Long> ids = new LinkedHashSet<>(orderIds);
+        return orderRepository.findAllById(ids)
+                .collectMap(Order::getOrderId, Function.identity())
+                .timeout(orderTimeout)
+                .flatMapMany(orders -> customerClient.getCustomers(orders.values().stream()
+                                .map(Order::getCustomerId)
+                                .collect(Collectors.toSet()))
+                        .flatMapMany(customers -> Flux.fromIterable(ids)
+                                .filter(orders::containsKey)
+                                .map(orders::get)
+                                .map(order -> new ResponseTemplateVO(order, customers.get(order.getCustomerId())))));
+    }
+
+    public Mono<List<ResponseTemplateVO>> getOrdersWithCustomer(Long customerId) {
+        return Mono.zip(orderRepository.findByCustomerId(customerId).collectList().timeout(orderTimeout),
+                        customerClient.getCustomer(customerId))
+                .map(both -> both.getT1().stream()
+                        .map(order -> new ResponseTemplateVO(order, both.getT2()))
+                        .toList());
+    }
+
+    public Flux<Order> getOrdersByCustomerId(Long customerId) {
+        return orderRepository.findByCustomerId(customerId);
+    }
+
+    public Flux<OrderSummary> getOrderSummariesByCustomerId(Long customerId) {
+        return orderRepository.findSummariesByCustomerIdOrderByOrderDateDesc(customerId);
+    }
+
+    public Flux<OrderSummary> getOrderSummariesByStatus(String orderStatus) {
+        return orderRepository.findSummariesByOrderStatus(orderStatus);
+    }
+
+    public Flux<OrderStatusTotals> getStatusTotals(Long customerId) {
+        return customerId == null ? orderRepository.totalsByStatus()
+                : orderRepository.totalsByStatusForCustomer(customerId);
+    }
+
+    public Mono<Order> updateOrder(Long orderId, Order orderDetails) {
+        return getOrderById(orderId).flatMap(order -> {
+            order.setOrderName(orderDetails.getOrderName());
+            order.setOrderAmount(orderDetails.getOrderAmount());
+            order.setOrderStatus(orderDetails.getOrderStatus());
+            return orderRepository.save(order);
+        });
+    }
+
+    // Emits true once deleted, nothing if there was no such order.
+    public Mono<Boolean> deleteOrder(Long orderId) {
+        return getOrderById(orderId)
+                .flatMap(order -> orderRepository.delete(order).thenReturn(true));
+    }
+}
@@ -0,0 +1,30 @@
+package com.microservice.orderservice.vo;
+
+import com.microservice.orderservice.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of orders in orderId order. Pass nextAfter back as "after"
+ * to get the following page; it is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPage {
+
+    private List<Order> orders;
+    private Long nextAfter;
+
+    // Built from a query for size + 1 rows: the extra row only tells us another page exists.
+    public static OrderPage of(List<Order> fetched, int size) {
+        if (fetched.size() <= size) {
+            return new OrderPage(fetched, null);
+        }
+        List<Order> orders = fetched.subList(0, size);
+        return new OrderPage(orders, orders.get(size - 1).getOrderId());
+    }
+}
@@ -0,0 +1,16 @@
+package com.microservice.orderservice.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Count and total amount of the orders in one status, computed by a GROUP BY in the database.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderStatusTotals {
+
+    private String orderStatus;
+    private Long orderCount;
+    private Double totalAmount;
+}
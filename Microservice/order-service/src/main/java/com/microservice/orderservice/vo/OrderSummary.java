@@ -0,0 +1,17 @@
+package com.microservice.orderservice.vo;
+
+import java.time.LocalDateTime;
+
+// Projection of the Order columns a listing needs; repository methods returning it select only these.
+public interface OrderSummary {
+
+    Long getOrderId();
+
+    String getOrderName();
+
+    Double getOrderAmount();
+
+    String getOrderStatus();
+
+    LocalDateTime getOrderDate();
+}
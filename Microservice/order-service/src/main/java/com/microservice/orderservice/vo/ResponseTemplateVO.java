@@ -12,4 +12,14 @@ public class ResponseTemplateVO {
 
     private Order order;
     private Customer customer;
+    // true when customer-service couldn't answer and the order is returned without its customer
+    private boolean degraded;
+
+    public ResponseTemplateVO(Order order, Customer customer) {
+        this(order, customer, false);
+    }
+
+    public static ResponseTemplateVO degraded(Order order) {
+        return new ResponseTemplateVO(order, null, true);
+    }
 }
\ No newline at end of file
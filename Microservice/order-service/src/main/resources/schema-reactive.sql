@@ -0,0 +1,12 @@
+-- The reactive profile has no Hibernate to generate the schema; this matches the JPA mapping of Order.
+CREATE TABLE IF NOT EXISTS orders (
+    order_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    order_name VARCHAR(255) NOT NULL,
+    order_amount DOUBLE PRECISION NOT NULL,
+    customer_id BIGINT NOT NULL,
+    order_date TIMESTAMP NOT NULL,
+    order_status VARCHAR(255)
+);
+
+CREATE INDEX IF NOT EXISTS idx_orders_customer_id_order_date ON orders (customer_id, order_date);
+CREATE INDEX IF NOT EXISTS idx_orders_order_status ON orders (order_status);
@@ -28,6 +28,9 @@ wait_for_service() {
     fi
 }
 
+# api-gateway and order-service run against the shared load-balancer module from the local repository
+mvn -q install -pl load-balancer -am -DskipTests
+
 echo "Step 1: Starting Service Registry (Eureka Server)..."
 cd service-registry
 mvn spring-boot:run > ../logs/eureka.log 2>&1 &
@@ -50,6 +50,9 @@ for port in 9296 8761 9001 9002 9191; do
     fi
 done
 
+# api-gateway and order-service run against the shared load-balancer module from the local repository
+mvn -q install -pl load-balancer -am -DskipTests
+
 # Start Config Server
 echo "📦 Starting Config Server (Port 9296)..."
 cd config-server
@@ -0,0 +1,87 @@
+#!/bin/bash
+
+# Load Balancing Test
+# Runs three stub customer-service instances (no Eureka), one of them degraded,
+# and compares round-robin with the peak-EWMA power-of-two-choices load balancer:
+# first through the API Gateway's lb:// route, then from order-service's
+# customer lookups. Prints throughput and latency percentiles for each.
+# Nothing else needs to be running; ports 9002, 9191 and 9101-9103 must be free.
+#
+# Usage: ./test-load-balancing.sh [degraded-delay-ms]
+
+DELAY=${1:-500}
+STUBS="9101 9102 9103"
+
+mkdir -p logs
+# api-gateway and order-service run against the shared load-balancer module from the local repository
+mvn -q install -pl load-balancer -am -DskipTests
+
+instances() {
+    local i=0
+    for port in $STUBS; do
+        echo -n "-Dspring.cloud.discovery.client.simple.instances.CUSTOMER-SERVICE[$i].uri=http://localhost:$port "
+        i=$((i + 1))
+    done
+}
+
+wait_for() {
+    for attempt in $(seq 1 60); do
+        curl -s "http://localhost:$1/actuator/health" > /dev/null && return
+        sleep 2
+    done
+}
+
+stop_port() {
+    lsof -ti:$1 | xargs kill 2>/dev/null
+    sleep 2
+}
+
+cleanup() {
+    lsof -ti:9002 -ti:9191 -ti:9101 -ti:9102 -ti:9103 | xargs kill 2>/dev/null
+}
+trap cleanup EXIT
+
+echo "🧪 Starting stub customer-service instances on $STUBS..."
+for port in $STUBS; do
+    nohup java load-test/StubCustomerService.java $port > logs/stub-customer-$port.log 2>&1 &
+done
+for port in $STUBS; do
+    until curl -s -X POST "http://localhost:$port/stub/config" > /dev/null; do sleep 1; done
+done
+echo "🐢 Degrading 9103: every request takes ${DELAY}ms"
+curl -s -X POST "http://localhost:9103/stub/config?delay=$DELAY&slow=1" > /dev/null
+
+for strategy in round-robin peak-ewma; do
+    echo ""
+    echo "🌐 API Gateway, $strategy"
+    cd api-gateway
+    # a single plain route, so neither the cache nor the rate limits get in the way
+    nohup mvn spring-boot:run -Dspring-boot.run.jvmArguments="-Deureka.client.enabled=false $(instances) \
+-Dspring.cloud.gateway.routes[0].id=CUSTOMER-SERVICE -Dspring.cloud.gateway.routes[0].uri=lb://CUSTOMER-SERVICE \
+-Dspring.cloud.gateway.routes[0].predicates[0]=Path=/customer/** \
+-Dgateway.load-balancer.strategy=$strategy" > ../logs/api-gateway-$strategy.log 2>&1 &
+    cd ..
+    wait_for 9191
+    java load-test/OrderLoadTest.java "http://localhost:9191/customer/{n}" 8 5 100 > /dev/null
+    java load-test/OrderLoadTest.java "http://localhost:9191/customer/{n}" 8 20 100 | tail -2
+    stop_port 9191
+done
+
+for strategy in round-robin peak-ewma; do
+    echo ""
+    echo "📦 Order Service, $strategy"
+    cd order-service
+    # no near cache or hedging, so every lookup is one load-balanced call
+    nohup mvn spring-boot:run -Dspring-boot.run.jvmArguments="-Deureka.client.enabled=false $(instances) \
+-Dorder.customer-cache.maximum-size=0 -Dorder.customer-resilience.hedge.enabled=false -Dspring.jpa.show-sql=false \
+-Dorder.load-balancer.strategy=$strategy" > ../logs/order-service-$strategy.log 2>&1 &
+    cd ..
+    wait_for 9002
+    for i in $(seq 1 5); do
+        curl -s -X POST http://localhost:9002/order/ -H "Content-Type: application/json" \
+            -d "{\"orderName\":\"Order $i\",\"orderAmount\":10.0,\"customerId\":$i}" > /dev/null
+    done
+    java load-test/OrderLoadTest.java "http://localhost:9002/order/withCustomer/{n}" 8 5 5 > /dev/null
+    java load-test/OrderLoadTest.java "http://localhost:9002/order/withCustomer/{n}" 8 20 5 | tail -2
+    stop_port 9002
+done
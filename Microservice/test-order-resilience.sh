@@ -0,0 +1,80 @@
+#!/bin/bash
+
+# Order Service Resilience Test
+# Runs order-service against two stub customer-service instances (no Eureka)
+# and walks through: healthy, slow tail (hedging), failing (degraded responses,
+# circuit breaker opens), recovery.
+# Nothing else needs to be running; ports 9002, 9101 and 9102 must be free.
+
+mkdir -p logs
+# api-gateway and order-service run against the shared load-balancer module from the local repository
+mvn -q install -pl load-balancer -am -DskipTests
+
+metric() {
+    curl -s "http://localhost:9002/actuator/metrics/$1" | grep -o '"value":[0-9.]*' | head -1 | grep -o '[0-9.]*$'
+}
+
+stub_config() {
+    for port in 9101 9102; do
+        curl -s -X POST "http://localhost:$port/stub/config?$1" > /dev/null
+    done
+}
+
+degraded_count() {
+    for i in $(seq 1 $1); do
+        curl -s http://localhost:9002/order/withCustomer/$(( i % 5 + 1 ))
+        echo
+    done | grep -c '"degraded":true'
+}
+
+cleanup() {
+    lsof -ti:9002 -ti:9101 -ti:9102 | xargs kill 2>/dev/null
+}
+trap cleanup EXIT
+
+echo "🧪 Starting stub customer-service instances on 9101 and 9102..."
+nohup java load-test/StubCustomerService.java 9101 > logs/stub-customer-9101.log 2>&1 &
+nohup java load-test/StubCustomerService.java 9102 > logs/stub-customer-9102.log 2>&1 &
+
+echo "📦 Starting Order Service against the stubs..."
+cd order-service
+# no near cache, so every lookup actually reaches a stub
+nohup mvn spring-boot:run -Dspring-boot.run.jvmArguments="-Deureka.client.enabled=false \
+-Dspring.cloud.discovery.client.simple.instances.CUSTOMER-SERVICE[0].uri=http://localhost:9101 \
+-Dspring.cloud.discovery.client.simple.instances.CUSTOMER-SERVICE[1].uri=http://localhost:9102 \
+-Dorder.customer-cache.maximum-size=0 -Dspring.jpa.show-sql=false" > ../logs/order-service-resilience.log 2>&1 &
+cd ..
+for attempt in $(seq 1 60); do
+    curl -s http://localhost:9002/actuator/health > /dev/null && break
+    sleep 2
+done
+
+for i in $(seq 1 5); do
+    curl -s -X POST http://localhost:9002/order/ -H "Content-Type: application/json" \
+        -d "{\"orderName\":\"Order $i\",\"orderAmount\":10.0,\"customerId\":$i}" > /dev/null
+done
+
+echo ""
+echo "✅ Healthy: degraded responses out of 20: $(degraded_count 20)"
+
+echo ""
+echo "🐢 Slow tail: 6% of calls to 9101 take 600ms"
+curl -s -X POST "http://localhost:9101/stub/config?delay=600&slow=0.06" > /dev/null
+java load-test/OrderLoadTest.java "http://localhost:9002/order/withCustomer/{n}" 10 15 5 | tail -2
+echo "   hedged calls: $(metric customer.client.hedges), won by the second instance: $(metric customer.client.hedge.wins)"
+
+echo ""
+echo "💥 Failing: every call answers 503"
+stub_config "slow=0&fail=1"
+echo "   degraded responses out of 30: $(degraded_count 30)"
+echo "   circuit breaker open: $(metric 'resilience4j.circuitbreaker.state?tag=state:open')"
+echo "   bulk insert while customers can't be checked: $(curl -s -o /dev/null -w '%{http_code}' -X POST \
+http://localhost:9002/order/bulk -H 'Content-Type: application/json' \
+-d '[{"orderName":"Bulk","orderAmount":1.0,"customerId":1}]')"
+
+echo ""
+echo "🔄 Recovered: waiting for the breaker to half-open..."
+stub_config "fail=0"
+sleep 6
+echo "   degraded responses out of 20: $(degraded_count 20)"
+echo "   circuit breaker closed: $(metric 'resilience4j.circuitbreaker.state?tag=state:closed')"